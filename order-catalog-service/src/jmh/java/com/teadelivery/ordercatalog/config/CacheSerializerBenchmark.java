@@ -0,0 +1,98 @@
+package com.teadelivery.ordercatalog.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.teadelivery.ordercatalog.common.cache.CompactRedisSerializer;
+import com.teadelivery.ordercatalog.menu.dto.MenuItemResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Size and encode/decode cost of a cached 300-item branch menu in each Redis value format.
+ * Encoded sizes are printed once per trial. Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CacheSerializerBenchmark {
+    
+    private static final String[] CATEGORIES = {"Beverages", "Snacks", "Main Course", "Desserts", "Combos"};
+    private static final String[][] TAGS = {{"bestseller"}, {"veg", "spicy"}, {"new"}, {"veg", "jain"}, {}};
+    
+    @Param({"json", "smile", "smile-deflate"})
+    public String format;
+    
+    @Param({"300"})
+    public int menuSize;
+    
+    private RedisSerializer<Object> serializer;
+    private List<MenuItemResponse> menu;
+    private byte[] encoded;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        serializer = switch (format) {
+            case "json" -> new GenericJackson2JsonRedisSerializer(RedisConfig.redisObjectMapper(new JsonFactory()));
+            case "smile" -> new CompactRedisSerializer(RedisConfig.redisObjectMapper(RedisConfig.smileFactory()), -1);
+            case "smile-deflate" -> new CompactRedisSerializer(RedisConfig.redisObjectMapper(RedisConfig.smileFactory()), 2048);
+            default -> throw new IllegalArgumentException(format);
+        };
+        menu = menu(menuSize);
+        encoded = serializer.serialize(menu);
+        if (!(serializer.deserialize(encoded) instanceof List<?> decoded) || decoded.size() != menuSize) {
+            throw new IllegalStateException(format + " did not round-trip the menu");
+        }
+        System.out.printf("%n%s: %d items -> %d bytes%n", format, menuSize, encoded.length);
+    }
+    
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize(menu);
+    }
+    
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded);
+    }
+    
+    private static List<MenuItemResponse> menu(int size) {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.of(2024, 3, 1, 10, 0);
+        List<MenuItemResponse> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String category = CATEGORIES[i % CATEGORIES.length];
+            items.add(MenuItemResponse.builder()
+                .menuItemId(10_000L + i)
+                .branchId(42L)
+                .name(category + " item " + i)
+                .description("Freshly prepared " + category.toLowerCase() + " with house spices, serves one")
+                .price(BigDecimal.valueOf(40 + random.nextInt(400), 0).add(new BigDecimal("0.50")))
+                .category(category)
+                .isAvailable(random.nextInt(10) > 0)
+                .preparationTimeMinutes(5 + random.nextInt(25))
+                .images(Map.of("thumbnail", "https://cdn.teadelivery.example/menu/" + i + "/thumb.webp"))
+                .metadata(Map.of("calories", 120 + random.nextInt(500), "spiceLevel", random.nextInt(4)))
+                .tags(TAGS[i % TAGS.length])
+                .createdAt(now.minusDays(i))
+                .updatedAt(now.minusHours(i))
+                .build());
+        }
+        return items;
+    }
+}
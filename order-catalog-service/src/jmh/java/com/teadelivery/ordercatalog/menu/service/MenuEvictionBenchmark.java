@@ -0,0 +1,133 @@
+package com.teadelivery.ordercatalog.menu.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of evicting one branch's cached menu versions as the Redis keyspace grows, with the former
+ * {@code KEYS branch:{id}:menu:v*} pattern lookup versus the per-branch version index that
+ * {@link MenuCacheService} now reads ({@code branch:{id}:menu:versions}). Each invocation first
+ * re-caches three versions (object menu and payload) of the branch, so both variants delete the same keys.
+ * <p>
+ * Needs a reachable Redis and flushes the database it uses, 15 unless overridden with
+ * {@code -Dbench.redis.database}; set the server with {@code -Dbench.redis.host} and {@code -Dbench.redis.port}.
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MenuEvictionBenchmark {
+
+    private static final long BRANCH_ID = 42L;
+    private static final int CACHED_VERSIONS = 3;
+    private static final int FILL_BATCH = 10_000;
+
+    @Param({"keys-scan", "version-index"})
+    public String eviction;
+
+    @Param({"10000", "1000000"})
+    public int keyspace;
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(
+            System.getProperty("bench.redis.host", "localhost"),
+            Integer.getInteger("bench.redis.port", 6379));
+        config.setDatabase(Integer.getInteger("bench.redis.database", 15));
+        connectionFactory = new LettuceConnectionFactory(config);
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+
+        flushDatabase();
+        // Other branches' menus and unrelated keys, which KEYS has to walk past
+        Map<String, String> batch = new HashMap<>(FILL_BATCH);
+        for (int i = 0; i < keyspace; i++) {
+            batch.put(i % 2 == 0 ? "branch:" + (1_000_000 + i) + ":menu:v1" : "order:idempotency:" + i, "x");
+            if (batch.size() == FILL_BATCH) {
+                redisTemplate.opsForValue().multiSet(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            redisTemplate.opsForValue().multiSet(batch);
+        }
+        Long size = redisTemplate.execute(connection -> connection.serverCommands().dbSize(), true);
+        System.out.printf("%nkeyspace: %d keys%n", size);
+    }
+
+    // Per-invocation setup is fine here: a single eviction is at least one network round trip
+    @Setup(Level.Invocation)
+    public void cacheBranchMenu() {
+        Map<String, String> entries = new HashMap<>();
+        String[] versions = new String[CACHED_VERSIONS];
+        for (int version = 1; version <= CACHED_VERSIONS; version++) {
+            entries.put(menuKey(version), "menu");
+            entries.put(menuKey(version) + ":payload", "payload");
+            versions[version - 1] = String.valueOf(version);
+        }
+        redisTemplate.opsForValue().multiSet(entries);
+        redisTemplate.opsForSet().add(versionsKey(), versions);
+    }
+
+    @Benchmark
+    public Long evict() {
+        List<String> keys;
+        if ("keys-scan".equals(eviction)) {
+            Set<String> matched = redisTemplate.keys("branch:" + BRANCH_ID + ":menu:v*");
+            keys = matched == null ? List.of() : new ArrayList<>(matched);
+        } else {
+            Set<String> members = redisTemplate.opsForSet().members(versionsKey());
+            keys = new ArrayList<>();
+            if (members != null) {
+                for (String version : members) {
+                    keys.add(menuKey(Integer.parseInt(version)));
+                    keys.add(menuKey(Integer.parseInt(version)) + ":payload");
+                }
+            }
+            keys.add(versionsKey());
+        }
+        return redisTemplate.delete(keys);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        flushDatabase();
+        connectionFactory.destroy();
+    }
+
+    private void flushDatabase() {
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        }, true);
+    }
+
+    private static String menuKey(int version) {
+        return "branch:" + BRANCH_ID + ":menu:v" + version;
+    }
+
+    private static String versionsKey() {
+        return "branch:" + BRANCH_ID + ":menu:versions";
+    }
+}
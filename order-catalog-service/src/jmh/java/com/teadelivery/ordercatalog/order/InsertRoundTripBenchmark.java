@@ -0,0 +1,161 @@
+package com.teadelivery.ordercatalog.order;
+
+import com.teadelivery.ordercatalog.common.persistence.PooledIds;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips and latency of writing one parent row with N child rows, as Hibernate issues them with
+ * IDENTITY keys (one {@code INSERT ... RETURNING} per row) versus pooled sequence keys (ids reserved in
+ * blocks of {@link PooledIds#ALLOCATION_SIZE}, then one insert batch per table). {@code rows=8} is a
+ * multi-line order, {@code rows=200} a bulk menu write. Statements per operation are printed once per trial.
+ * <p>
+ * Needs a reachable PostgreSQL; works on temporary tables only. Override the connection with
+ * {@code -Dbench.jdbc.url}, {@code -Dbench.jdbc.user} and {@code -Dbench.jdbc.password}. Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InsertRoundTripBenchmark {
+
+    @Param({"identity", "pooled"})
+    public String ids;
+
+    @Param({"8", "200"})
+    public int rows;
+
+    private Connection connection;
+    private PreparedStatement insertParentReturning;
+    private PreparedStatement insertChildReturning;
+    private PreparedStatement reserveIds;
+    private PreparedStatement insertParent;
+    private PreparedStatement insertChild;
+    private long roundTrips;
+    private long operations;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+            System.getProperty("bench.jdbc.url", "jdbc:postgresql://localhost:5432/order_catalog_db?reWriteBatchedInserts=true"),
+            System.getProperty("bench.jdbc.user", "tea_snacks_user"),
+            System.getProperty("bench.jdbc.password", "tea_snacks_password"));
+
+        int increment = "pooled".equals(ids) ? PooledIds.ALLOCATION_SIZE : 1;
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TEMP SEQUENCE bench_id_seq INCREMENT BY " + increment);
+            ddl.execute("CREATE TEMP TABLE bench_orders (order_id BIGINT PRIMARY KEY DEFAULT nextval('bench_id_seq'), " +
+                        "total_amount DECIMAL(10,2) NOT NULL)");
+            ddl.execute("CREATE TEMP TABLE bench_order_items (order_item_id BIGINT PRIMARY KEY DEFAULT nextval('bench_id_seq'), " +
+                        "order_id BIGINT NOT NULL, item_name VARCHAR(255) NOT NULL, quantity INTEGER NOT NULL, " +
+                        "price_at_order DECIMAL(10,2) NOT NULL)");
+        }
+        connection.setAutoCommit(false);
+
+        insertParentReturning = connection.prepareStatement(
+            "INSERT INTO bench_orders (total_amount) VALUES (?) RETURNING order_id");
+        insertChildReturning = connection.prepareStatement(
+            "INSERT INTO bench_order_items (order_id, item_name, quantity, price_at_order) VALUES (?, ?, ?, ?) RETURNING order_item_id");
+        reserveIds = connection.prepareStatement(
+            "SELECT nextval('bench_id_seq') FROM generate_series(1, ?)");
+        insertParent = connection.prepareStatement(
+            "INSERT INTO bench_orders (order_id, total_amount) VALUES (?, ?)");
+        insertChild = connection.prepareStatement(
+            "INSERT INTO bench_order_items (order_item_id, order_id, item_name, quantity, price_at_order) VALUES (?, ?, ?, ?, ?)");
+    }
+
+    @Benchmark
+    public long write() throws SQLException {
+        long parentId = "pooled".equals(ids) ? writePooled() : writeIdentity();
+        connection.commit();
+        operations++;
+        return parentId;
+    }
+
+    @TearDown(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE bench_orders, bench_order_items");
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        if (operations > 0) {
+            System.out.printf("%n%s, %d rows: %.1f statements per write (plus commit)%n",
+                ids, rows, (double) roundTrips / operations);
+        }
+        connection.close();
+    }
+
+    private long writeIdentity() throws SQLException {
+        insertParentReturning.setBigDecimal(1, BigDecimal.valueOf(25L * rows));
+        long parentId = singleLong(insertParentReturning);
+        for (int i = 0; i < rows; i++) {
+            insertChildReturning.setLong(1, parentId);
+            insertChildReturning.setString(2, "Item " + i);
+            insertChildReturning.setInt(3, 1);
+            insertChildReturning.setBigDecimal(4, BigDecimal.valueOf(25));
+            singleLong(insertChildReturning);
+        }
+        return parentId;
+    }
+
+    private long writePooled() throws SQLException {
+        // Hibernate keeps unused ids of a block for later writes; reserving per write is the worst case
+        reserveIds.setInt(1, PooledIds.blocksFor(rows + 1));
+        List<Long> blockEnds = new ArrayList<>();
+        try (ResultSet resultSet = reserveIds.executeQuery()) {
+            while (resultSet.next()) {
+                blockEnds.add(resultSet.getLong(1));
+            }
+        }
+        roundTrips++;
+        List<Long> idPool = PooledIds.expand(blockEnds, rows + 1);
+
+        long parentId = idPool.get(0);
+        insertParent.setLong(1, parentId);
+        insertParent.setBigDecimal(2, BigDecimal.valueOf(25L * rows));
+        insertParent.executeUpdate();
+        roundTrips++;
+
+        for (int i = 0; i < rows; i++) {
+            insertChild.setLong(1, idPool.get(i + 1));
+            insertChild.setLong(2, parentId);
+            insertChild.setString(3, "Item " + i);
+            insertChild.setInt(4, 1);
+            insertChild.setBigDecimal(5, BigDecimal.valueOf(25));
+            insertChild.addBatch();
+        }
+        insertChild.executeBatch();
+        roundTrips++;
+        return parentId;
+    }
+
+    private long singleLong(PreparedStatement statement) throws SQLException {
+        roundTrips++;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.teadelivery.ordercatalog.common.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers cache side effects until the surrounding transaction commits, so a concurrent
+ * reader cannot re-populate a cache from rows that are not yet visible.
+ * Runs the action immediately when no transaction is active.
+ */
+public class AfterCommit {
+    
+    private AfterCommit() {
+        // Utility class
+    }
+    
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package com.teadelivery.ordercatalog.common.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Fans out near-cache invalidations to every service instance over a Redis pub/sub channel.
+ * Messages have the form {@code <region>:<branchId>}; each instance (including the sender)
+ * drops its local entries for that branch.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CacheInvalidationBus implements MessageListener {
+    
+    public static final String CHANNEL = "order-catalog:cache-invalidation";
+    
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    
+    private final Map<String, List<Consumer<Long>>> handlers = new ConcurrentHashMap<>();
+    
+    public void subscribe(String region, Consumer<Long> handler) {
+        handlers.computeIfAbsent(region, r -> new CopyOnWriteArrayList<>()).add(handler);
+    }
+    
+    /**
+     * Invalidates the local entries right away and asks all other instances to do the same.
+     */
+    public void invalidate(String region, Long branchId) {
+        dispatch(region, branchId);
+        try {
+            stringRedisTemplate.convertAndSend(CHANNEL, region + ":" + branchId);
+        } catch (Exception e) {
+            log.warn("Failed to publish cache invalidation {}:{}: {}", region, branchId, e.getMessage());
+        }
+    }
+    
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(':');
+        if (separator <= 0) {
+            log.warn("Ignoring malformed cache invalidation message: {}", body);
+            return;
+        }
+        try {
+            dispatch(body.substring(0, separator), Long.valueOf(body.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed cache invalidation message: {}", body);
+        }
+    }
+    
+    /**
+     * Subscribes once the application is up so a missing Redis never blocks startup;
+     * the container keeps retrying the subscription in the background.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void listen() {
+        try {
+            listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+            log.info("Listening for cache invalidations on {}", CHANNEL);
+        } catch (Exception e) {
+            log.warn("Cache invalidation subscription not established yet: {}", e.getMessage());
+        }
+    }
+    
+    private void dispatch(String region, Long branchId) {
+        List<Consumer<Long>> regionHandlers = handlers.get(region);
+        if (regionHandlers == null) {
+            return;
+        }
+        for (Consumer<Long> handler : regionHandlers) {
+            handler.accept(branchId);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.teadelivery.ordercatalog.common.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary cache value format: a 3-byte header (magic, format version, flags) followed by the value
+ * encoded with a binary Jackson mapper (Smile), deflated when it is larger than the compression threshold.
+ * Values without the expected header, e.g. entries written by an older format, read as {@code null}
+ * and are therefore treated as cache misses.
+ */
+@Slf4j
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+    
+    static final byte MAGIC = (byte) 0xC7;
+    static final byte FORMAT_VERSION = 1;
+    static final byte FLAG_DEFLATED = 0x01;
+    private static final int HEADER_LENGTH = 3;
+    
+    private final ObjectMapper mapper;
+    private final int compressionThreshold;
+    
+    /**
+     * @param compressionThreshold encoded size in bytes above which values are deflated; negative disables compression
+     */
+    public CompactRedisSerializer(ObjectMapper mapper, int compressionThreshold) {
+        this.mapper = mapper;
+        this.compressionThreshold = compressionThreshold;
+    }
+    
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        try {
+            byte[] encoded = mapper.writeValueAsBytes(value);
+            boolean deflate = compressionThreshold >= 0 && encoded.length > compressionThreshold;
+            byte[] body = deflate ? deflate(encoded) : encoded;
+            
+            byte[] result = new byte[HEADER_LENGTH + body.length];
+            result[0] = MAGIC;
+            result[1] = FORMAT_VERSION;
+            result[2] = deflate ? FLAG_DEFLATED : 0;
+            System.arraycopy(body, 0, result, HEADER_LENGTH, body.length);
+            return result;
+        } catch (IOException e) {
+            throw new SerializationException("Could not write cache value", e);
+        }
+    }
+    
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes.length < HEADER_LENGTH || bytes[0] != MAGIC || bytes[1] != FORMAT_VERSION) {
+            log.debug("Ignoring cache value written in an unknown format");
+            return null;
+        }
+        try {
+            byte[] body = Arrays.copyOfRange(bytes, HEADER_LENGTH, bytes.length);
+            if ((bytes[2] & FLAG_DEFLATED) != 0) {
+                body = inflate(body);
+            }
+            return mapper.readValue(body, Object.class);
+        } catch (IOException | DataFormatException e) {
+            throw new SerializationException("Could not read cache value", e);
+        }
+    }
+    
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(input.length / 3 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+    
+    private static byte[] inflate(byte[] input) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input);
+            ByteArrayOutputStream output = new ByteArrayOutputStream(input.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && inflater.needsInput()) {
+                    throw new DataFormatException("Truncated cache value");
+                }
+                output.write(buffer, 0, count);
+            }
+            return output.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+}
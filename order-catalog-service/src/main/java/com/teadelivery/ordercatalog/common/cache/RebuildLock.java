@@ -0,0 +1,88 @@
+package com.teadelivery.ordercatalog.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived Redis lock that lets one node rebuild an expired cache entry while the others wait
+ * for its result instead of querying the database as well.
+ * Fails open: if Redis is unreachable every caller is allowed to rebuild.
+ */
+@Component
+@Slf4j
+public class RebuildLock {
+    
+    private static final String LOCK_SUFFIX = ":rebuild-lock";
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(25);
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+        "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) else return 0 end",
+        Long.class);
+    
+    private final RedisTemplate<String, byte[]> binaryRedisTemplate;
+    private final Duration lockTtl;
+    private final Duration maxWait;
+    
+    public RebuildLock(RedisTemplate<String, byte[]> binaryRedisTemplate,
+                       @Value("${cache.rebuild.lock-ttl:PT5S}") Duration lockTtl,
+                       @Value("${cache.rebuild.max-wait:PT2S}") Duration maxWait) {
+        this.binaryRedisTemplate = binaryRedisTemplate;
+        this.lockTtl = lockTtl;
+        this.maxWait = maxWait;
+    }
+    
+    /**
+     * @return a token to pass to {@link #release}, or {@code null} if another node is rebuilding {@code cacheKey}
+     */
+    public String tryAcquire(String cacheKey) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = binaryRedisTemplate.opsForValue()
+                .setIfAbsent(cacheKey + LOCK_SUFFIX, token.getBytes(StandardCharsets.UTF_8), lockTtl);
+            return Boolean.FALSE.equals(acquired) ? null : token;
+        } catch (Exception e) {
+            log.warn("Failed to acquire rebuild lock: {}", e.getMessage());
+            return token;
+        }
+    }
+    
+    public void release(String cacheKey, String token) {
+        try {
+            binaryRedisTemplate.execute(RELEASE_SCRIPT, List.of(cacheKey + LOCK_SUFFIX),
+                token.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.warn("Failed to release rebuild lock: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Polls {@code probe} until it returns a value or {@code cache.rebuild.max-wait} elapses.
+     *
+     * @return the rebuilt value, or {@code null} if the lock holder did not publish it in time
+     */
+    public <T> T awaitRebuild(Supplier<T> probe) {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(POLL_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            T value = probe.get();
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+}
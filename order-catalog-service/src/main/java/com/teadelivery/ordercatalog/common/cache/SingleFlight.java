@@ -0,0 +1,68 @@
+package com.teadelivery.ordercatalog.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent loads of the same key within this JVM into one: the first caller runs the
+ * loader, every caller arriving while it runs waits for and shares its result.
+ */
+@Slf4j
+public class SingleFlight<K, V> {
+    
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    
+    public V run(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return join(existing);
+        }
+        return load(key, flight, loader);
+    }
+    
+    /**
+     * Starts the loader on a virtual thread unless a load for the key is already running.
+     */
+    public void runInBackground(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, flight) != null) {
+            return;
+        }
+        Thread.ofVirtual().name("cache-refresh").start(() -> {
+            try {
+                load(key, flight, loader);
+            } catch (RuntimeException e) {
+                log.warn("Background refresh failed for {}: {}", key, e.getMessage());
+            }
+        });
+    }
+    
+    private V load(K key, CompletableFuture<V> flight, Supplier<V> loader) {
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+    
+    private V join(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.teadelivery.ordercatalog.common.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Hit/miss/eviction meters for a two-tier (in-JVM near cache + Redis) cache.
+ * Both tiers report under the standard {@code cache.*} meters, distinguished by the {@code tier} tag;
+ * {@code cache.rebuilds} counts entries rebuilt from the database.
+ */
+public class TieredCacheMetrics {
+    
+    private final Counter redisHits;
+    private final Counter redisMisses;
+    private final Counter redisEvictions;
+    private final Counter rebuilds;
+    
+    public TieredCacheMetrics(MeterRegistry registry, String cacheName, Cache<?, ?> nearCache) {
+        CaffeineCacheMetrics.monitor(registry, nearCache, cacheName, Tags.of("tier", "near"));
+        
+        this.redisHits = Counter.builder("cache.gets")
+            .tags("cache", cacheName, "tier", "redis", "result", "hit")
+            .register(registry);
+        this.redisMisses = Counter.builder("cache.gets")
+            .tags("cache", cacheName, "tier", "redis", "result", "miss")
+            .register(registry);
+        this.redisEvictions = Counter.builder("cache.evictions")
+            .tags("cache", cacheName, "tier", "redis")
+            .register(registry);
+        this.rebuilds = Counter.builder("cache.rebuilds")
+            .tags("cache", cacheName)
+            .register(registry);
+    }
+    
+    public void redisHit() {
+        redisHits.increment();
+    }
+    
+    public void redisMiss() {
+        redisMisses.increment();
+    }
+    
+    public void redisEviction() {
+        redisEvictions.increment();
+    }
+    
+    public void redisEvictions(long count) {
+        redisEvictions.increment(count);
+    }
+    
+    public void rebuild() {
+        rebuilds.increment();
+    }
+}
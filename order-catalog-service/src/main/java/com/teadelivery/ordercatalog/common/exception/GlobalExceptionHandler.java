@@ -70,6 +70,22 @@ public class GlobalExceptionHandler {
                 .build();
     }
 
+    /**
+     * Handle order not found exceptions
+     */
+    @ExceptionHandler(OrderNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ErrorResponse handleOrderNotFoundException(OrderNotFoundException ex, WebRequest request) {
+        log.error("Order not found: {}", ex.getMessage());
+        return ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.NOT_FOUND.value())
+                .error(HttpStatus.NOT_FOUND.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+    }
+
     /**
      * Handle vendor already exists exceptions
      */
@@ -102,6 +118,22 @@ public class GlobalExceptionHandler {
                 .build();
     }
 
+    /**
+     * Handle rejected order exceptions
+     */
+    @ExceptionHandler(OrderRejectedException.class)
+    @ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+    public ErrorResponse handleOrderRejectedException(OrderRejectedException ex, WebRequest request) {
+        log.error("Order rejected: {}", ex.getMessage());
+        return ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.UNPROCESSABLE_ENTITY.value())
+                .error(HttpStatus.UNPROCESSABLE_ENTITY.getReasonPhrase())
+                .message(ex.getMessage())
+                .path(request.getDescription(false).replace("uri=", ""))
+                .build();
+    }
+
     /**
      * Handle unauthorized access exceptions
      */
@@ -0,0 +1,12 @@
+package com.teadelivery.ordercatalog.common.exception;
+
+public class OrderNotFoundException extends RuntimeException {
+    
+    public OrderNotFoundException(String message) {
+        super(message);
+    }
+    
+    public OrderNotFoundException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
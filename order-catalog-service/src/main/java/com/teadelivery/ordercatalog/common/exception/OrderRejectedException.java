@@ -0,0 +1,16 @@
+package com.teadelivery.ordercatalog.common.exception;
+
+/**
+ * A well-formed order that cannot be accepted as it stands: the branch is closed or the cart
+ * no longer matches the menu.
+ */
+public class OrderRejectedException extends RuntimeException {
+    
+    public OrderRejectedException(String message) {
+        super(message);
+    }
+    
+    public OrderRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,39 @@
+package com.teadelivery.ordercatalog.common.geo;
+
+/**
+ * Great-circle distances on a spherical earth, accurate to well under a percent at delivery ranges.
+ */
+public class GeoDistance {
+    
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    public static final double KM_PER_DEGREE_LATITUDE = Math.PI * EARTH_RADIUS_KM / 180;
+    
+    private GeoDistance() {
+        // Utility class
+    }
+    
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+    
+    /**
+     * Kilometres covered by one degree of longitude at the given latitude, floored so polar
+     * latitudes never divide by zero.
+     */
+    public static double kmPerDegreeLongitude(double latitude) {
+        return Math.max(KM_PER_DEGREE_LATITUDE * Math.cos(Math.toRadians(latitude)), 0.01);
+    }
+    
+    public static void requireValidPoint(double latitude, double longitude) {
+        if (latitude < -90 || latitude > 90) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90");
+        }
+        if (longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Longitude must be between -180 and 180");
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.teadelivery.ordercatalog.common.geo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Geohash cells held as their raw interleaved bits (5 bits per base32 character, longitude first),
+ * which keeps cell keys as cheap {@code long}s and lets neighbouring cells be enumerated by
+ * latitude/longitude index instead of through string neighbour tables.
+ */
+public class GeoHash {
+    
+    public static final int MAX_PRECISION = 12;
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    
+    private GeoHash() {
+        // Utility class
+    }
+    
+    public static long encode(double latitude, double longitude, int precision) {
+        int bits = bits(precision);
+        return interleave(longitudeIndex(longitude, bits), latitudeIndex(latitude, bits), bits);
+    }
+    
+    /**
+     * Every cell at the given precision that intersects the circle of {@code radiusKm} around the point.
+     */
+    public static List<Long> coveringCells(double latitude, double longitude, double radiusKm, int precision) {
+        int bits = bits(precision);
+        double cellLat = 180.0 / (1L << latitudeBits(bits));
+        double cellLon = 360.0 / (1L << longitudeBits(bits));
+        double latSpan = radiusKm / GeoDistance.KM_PER_DEGREE_LATITUDE;
+        double lonSpan = radiusKm / GeoDistance.kmPerDegreeLongitude(latitude);
+        
+        long minLat = latitudeIndex(Math.max(latitude - latSpan, -90), bits);
+        long maxLat = latitudeIndex(Math.min(latitude + latSpan, 90), bits);
+        long minLon = longitudeIndex(Math.max(longitude - lonSpan, -180), bits);
+        long maxLon = longitudeIndex(Math.min(longitude + lonSpan, 180), bits);
+        
+        List<Long> cells = new ArrayList<>();
+        for (long y = minLat; y <= maxLat; y++) {
+            double south = -90 + y * cellLat;
+            double nearestLat = clamp(latitude, south, south + cellLat);
+            for (long x = minLon; x <= maxLon; x++) {
+                double west = -180 + x * cellLon;
+                double nearestLon = clamp(longitude, west, west + cellLon);
+                // Corners of the bounding box can lie outside the circle
+                if (GeoDistance.haversineKm(latitude, longitude, nearestLat, nearestLon) <= radiusKm) {
+                    cells.add(interleave(x, y, bits));
+                }
+            }
+        }
+        return cells;
+    }
+    
+    public static String toBase32(long cell, int precision) {
+        char[] chars = new char[precision];
+        for (int i = precision - 1; i >= 0; i--) {
+            chars[i] = BASE32[(int) (cell & 31)];
+            cell >>>= 5;
+        }
+        return new String(chars);
+    }
+    
+    private static int bits(int precision) {
+        if (precision < 1 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Geohash precision must be between 1 and " + MAX_PRECISION);
+        }
+        return precision * 5;
+    }
+    
+    private static int longitudeBits(int bits) {
+        return (bits + 1) / 2;
+    }
+    
+    private static int latitudeBits(int bits) {
+        return bits / 2;
+    }
+    
+    private static long latitudeIndex(double latitude, int bits) {
+        long cells = 1L << latitudeBits(bits);
+        return Math.min((long) ((latitude + 90) / 180 * cells), cells - 1);
+    }
+    
+    private static long longitudeIndex(double longitude, int bits) {
+        long cells = 1L << longitudeBits(bits);
+        return Math.min((long) ((longitude + 180) / 360 * cells), cells - 1);
+    }
+    
+    private static long interleave(long lonIndex, long latIndex, int bits) {
+        int lonBit = longitudeBits(bits) - 1;
+        int latBit = latitudeBits(bits) - 1;
+        long cell = 0;
+        for (int i = 0; i < bits; i++) {
+            long bit = (i % 2 == 0) ? (lonIndex >>> lonBit--) & 1 : (latIndex >>> latBit--) & 1;
+            cell = (cell << 1) | bit;
+        }
+        return cell;
+    }
+    
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,33 @@
+package com.teadelivery.ordercatalog.common.pagination;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Count-free page of results. {@code nextCursor} is present whenever {@code hasNext} is true
+ * and is passed back as the {@code cursor} request parameter to continue after the last item.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Slice of results with an opaque continuation cursor")
+public class SliceResponse<T> {
+    
+    @Schema(description = "Items in this slice")
+    private List<T> items;
+    
+    @Schema(description = "Requested slice size", example = "50")
+    private Integer size;
+    
+    @Schema(description = "Whether more items follow this slice", example = "true")
+    private Boolean hasNext;
+    
+    @Schema(description = "Opaque token for the next slice; absent on the last slice", example = "MTIzNA")
+    private String nextCursor;
+}
@@ -0,0 +1,39 @@
+package com.teadelivery.ordercatalog.common.persistence;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shared settings for the pooled id sequences (V11). Each {@code nextval} reserves the block
+ * {@code (value - ALLOCATION_SIZE, value]}, the same contract Hibernate's pooled optimizer uses,
+ * so ids handed out by JDBC writers and by the entity generators can never collide.
+ */
+public class PooledIds {
+    
+    /** Must match {@code INCREMENT BY} of the sequences altered in V11. */
+    public static final int ALLOCATION_SIZE = 50;
+    
+    private PooledIds() {
+        // Utility class
+    }
+    
+    /**
+     * Number of {@code nextval} calls needed to reserve {@code count} ids.
+     */
+    public static int blocksFor(int count) {
+        return (count + ALLOCATION_SIZE - 1) / ALLOCATION_SIZE;
+    }
+    
+    /**
+     * Expands {@code nextval} results into the first {@code count} ids of their reserved blocks.
+     */
+    public static List<Long> expand(List<Long> blockEnds, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (Long blockEnd : blockEnds) {
+            for (long id = blockEnd - ALLOCATION_SIZE + 1; id <= blockEnd && ids.size() < count; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+}
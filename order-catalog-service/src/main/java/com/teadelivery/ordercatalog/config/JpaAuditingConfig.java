@@ -0,0 +1,12 @@
+package com.teadelivery.ordercatalog.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+
+/**
+ * Enables the {@code @CreatedDate}/{@code @LastModifiedDate} listeners declared on the entities.
+ */
+@Configuration
+@EnableJpaAuditing
+public class JpaAuditingConfig {
+}
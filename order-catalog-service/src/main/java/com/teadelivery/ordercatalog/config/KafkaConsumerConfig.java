@@ -0,0 +1,68 @@
+package com.teadelivery.ordercatalog.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Listener container for the POS menu feed: batch delivery, bounded polls, and a dead-letter topic
+ * ({@code <topic>.DLT}) for records that are invalid or keep failing.
+ */
+@Configuration
+public class KafkaConsumerConfig {
+    
+    @Value("${menu.feed.concurrency:3}")
+    private int concurrency;
+    
+    @Value("${menu.feed.max-poll-records:500}")
+    private int maxPollRecords;
+    
+    @Value("${menu.feed.max-partition-fetch-bytes:262144}")
+    private int maxPartitionFetchBytes;
+    
+    @Value("${menu.feed.retry-interval:PT1S}")
+    private Duration retryInterval;
+    
+    @Value("${menu.feed.retry-attempts:2}")
+    private long retryAttempts;
+    
+    @Bean
+    public DeadLetterPublishingRecoverer menuFeedDeadLetterRecoverer(KafkaTemplate<String, String> kafkaTemplate) {
+        return new DeadLetterPublishingRecoverer(kafkaTemplate);
+    }
+    
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> menuFeedContainerFactory(
+            ConsumerFactory<String, String> consumerFactory,
+            DeadLetterPublishingRecoverer menuFeedDeadLetterRecoverer) {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        
+        // Feed records are keyed by branch; capping the bytes taken from one partition per fetch keeps a
+        // flooding chain from filling every poll, and the record cap bounds the work done between polls
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(maxPollRecords));
+        overrides.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, String.valueOf(maxPartitionFetchBytes));
+        ContainerProperties containerProperties = factory.getContainerProperties();
+        containerProperties.setKafkaConsumerProperties(overrides);
+        containerProperties.setAckMode(ContainerProperties.AckMode.BATCH);
+        
+        // A failed branch is retried from its first record, then that record is dead-lettered
+        factory.setCommonErrorHandler(new DefaultErrorHandler(menuFeedDeadLetterRecoverer,
+            new FixedBackOff(retryInterval.toMillis(), retryAttempts)));
+        return factory;
+    }
+}
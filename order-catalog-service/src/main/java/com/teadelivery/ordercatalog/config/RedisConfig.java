@@ -1,15 +1,33 @@
 package com.teadelivery.ordercatalog.config;
 
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.teadelivery.ordercatalog.common.cache.CompactRedisSerializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 public class RedisConfig {
     
+    @Value("${cache.serialization.format:smile}")
+    private String serializationFormat;
+    
+    @Value("${cache.serialization.compression-threshold:2048}")
+    private int compressionThreshold;
+    
     @Bean
     public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
@@ -18,18 +36,73 @@ public class RedisConfig {
         // String serializer for keys
         StringRedisSerializer stringSerializer = new StringRedisSerializer();
         
-        // JSON serializer for values
-        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
+        // Value serializer (cached DTOs carry java.time fields)
+        RedisSerializer<Object> valueSerializer = cacheValueSerializer();
         
         // Set key-value serialization
         template.setKeySerializer(stringSerializer);
-        template.setValueSerializer(jsonSerializer);
+        template.setValueSerializer(valueSerializer);
         
         // Set hash key-value serialization
         template.setHashKeySerializer(stringSerializer);
-        template.setHashValueSerializer(jsonSerializer);
+        template.setHashValueSerializer(valueSerializer);
         
         template.afterPropertiesSet();
         return template;
     }
+    
+    /**
+     * Template for pre-rendered payloads that are stored and served as raw bytes.
+     */
+    @Bean
+    public RedisTemplate<String, byte[]> binaryRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        
+        StringRedisSerializer stringSerializer = new StringRedisSerializer();
+        
+        template.setKeySerializer(stringSerializer);
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setHashKeySerializer(stringSerializer);
+        template.setHashValueSerializer(RedisSerializer.byteArray());
+        
+        template.afterPropertiesSet();
+        return template;
+    }
+    
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+    
+    /**
+     * {@code smile}: compact binary values with a versioned header, deflated above the compression threshold.
+     * {@code json}: the previous self-describing JSON values, readable with redis-cli.
+     * Entries written in the other format are read as cache misses.
+     */
+    private RedisSerializer<Object> cacheValueSerializer() {
+        return switch (serializationFormat) {
+            case "smile" -> new CompactRedisSerializer(redisObjectMapper(smileFactory()), compressionThreshold);
+            case "json" -> new GenericJackson2JsonRedisSerializer(redisObjectMapper(new JsonFactory()));
+            default -> throw new IllegalStateException("Unknown cache.serialization.format: " + serializationFormat);
+        };
+    }
+    
+    static SmileFactory smileFactory() {
+        // Shared value strings back-reference the repeated type ids instead of repeating them per item
+        return SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build();
+    }
+    
+    static ObjectMapper redisObjectMapper(JsonFactory factory) {
+        ObjectMapper mapper = new ObjectMapper(factory);
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance,
+            ObjectMapper.DefaultTyping.EVERYTHING, JsonTypeInfo.As.PROPERTY);
+        return mapper;
+    }
 }
@@ -0,0 +1,12 @@
+package com.teadelivery.ordercatalog.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs (change log compaction, etc.).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
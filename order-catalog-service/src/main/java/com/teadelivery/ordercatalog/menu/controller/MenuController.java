@@ -2,10 +2,20 @@ package com.teadelivery.ordercatalog.menu.controller;
 
 import com.teadelivery.ordercatalog.common.exception.ErrorResponse;
 import com.teadelivery.ordercatalog.common.exception.ValidationErrorResponse;
+import com.teadelivery.ordercatalog.menu.dto.BranchMenuResponse;
+import com.teadelivery.ordercatalog.menu.dto.MenuDeltaResponse;
+import com.teadelivery.ordercatalog.menu.dto.MenuImportResponse;
+import com.teadelivery.ordercatalog.menu.dto.MenuItemBatchPatchRequest;
+import com.teadelivery.ordercatalog.menu.dto.MenuItemBatchPatchResponse;
 import com.teadelivery.ordercatalog.menu.dto.MenuItemCreateRequest;
 import com.teadelivery.ordercatalog.menu.dto.MenuItemResponse;
 import com.teadelivery.ordercatalog.menu.dto.MenuItemUpdateRequest;
+import com.teadelivery.ordercatalog.menu.dto.MenuPayload;
+import com.teadelivery.ordercatalog.menu.dto.PopularItemResponse;
+import com.teadelivery.ordercatalog.menu.model.PopularityWindow;
+import com.teadelivery.ordercatalog.menu.service.MenuImportService;
 import com.teadelivery.ordercatalog.menu.service.MenuService;
+import com.teadelivery.ordercatalog.menu.service.PopularItemsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -19,11 +29,16 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 @RestController
@@ -33,7 +48,11 @@ import java.util.UUID;
 @Tag(name = "Menu Management", description = "APIs for managing branch menu items, categories, and availability")
 public class MenuController {
     
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    
     private final MenuService menuService;
+    private final PopularItemsService popularItemsService;
+    private final MenuImportService menuImportService;
     
     @Operation(
         summary = "Create a new menu item",
@@ -101,6 +120,81 @@ public class MenuController {
         return menuService.createMenuItem(branchId, request, requestingUserId);
     }
     
+    @Operation(
+        summary = "Bulk import menu items",
+        description = "Streams menu items as JSON lines (application/x-ndjson, one create request per line) or CSV " +
+                      "(text/csv with a name,description,price,category,preparationTimeMinutes,tags header; tags pipe separated). " +
+                      "Valid rows are imported and invalid rows reported individually; the menu version is bumped once per import"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Import processed; see importedCount and errors",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = MenuImportResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Malformed CSV header or quoting",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Not authorized to modify this branch's menu",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Branch not found",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        )
+    })
+    @PostMapping(value = "/branches/{branchId}/import", consumes = {"application/x-ndjson", "application/jsonl", "text/csv"})
+    public MenuImportResponse importMenuItems(
+            @Parameter(description = "Branch ID", example = "1", required = true)
+            @PathVariable Long branchId,
+            @Parameter(hidden = true)
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                description = "Menu items as JSON lines or CSV",
+                required = true,
+                content = {
+                    @Content(
+                        mediaType = "application/x-ndjson",
+                        examples = @ExampleObject(
+                            value = "{\"name\": \"Masala Chai\", \"price\": 20.00, \"category\": \"Beverages\"}\n{\"name\": \"Samosa\", \"price\": 15.00, \"category\": \"Snacks\"}"
+                        )
+                    ),
+                    @Content(
+                        mediaType = "text/csv",
+                        examples = @ExampleObject(
+                            value = "name,price,category,tags\nMasala Chai,20.00,Beverages,hot|popular\nSamosa,15.00,Snacks,"
+                        )
+                    )
+                }
+            )
+            InputStream body) {
+        
+        log.info("Bulk import request for branch: {}", branchId);
+        
+        // For now, using a hardcoded userId. In production, this would come from authentication
+        UUID requestingUserId = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+        
+        return menuImportService.importMenuItems(branchId, body,
+            MenuImportService.Format.fromContentType(contentType), requestingUserId);
+    }
+    
     @Operation(
         summary = "Get menu item details",
         description = "Retrieves complete information about a specific menu item"
@@ -138,7 +232,9 @@ public class MenuController {
     
     @Operation(
         summary = "Get branch menu",
-        description = "Retrieves all menu items for a branch with optional category filtering and pagination"
+        description = "Retrieves all menu items for a branch with optional category filtering and pagination. " +
+                      "Pass cursor (empty for the first slice) to page by menu item id instead of offset. " +
+                      "Without category, page, size or cursor the whole menu is returned"
     )
     @ApiResponses(value = {
         @ApiResponse(
@@ -149,6 +245,10 @@ public class MenuController {
                 schema = @Schema(implementation = MenuItemResponse.class)
             )
         ),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Menu unchanged since the version in If-None-Match"
+        ),
         @ApiResponse(
             responseCode = "404",
             description = "Branch not found",
@@ -159,20 +259,151 @@ public class MenuController {
         )
     })
     @GetMapping("/branches/{branchId}")
-    public List<MenuItemResponse> getBranchMenu(
+    public ResponseEntity<?> getBranchMenu(
             @Parameter(description = "Branch ID", example = "1", required = true)
             @PathVariable Long branchId,
             @Parameter(description = "Filter by category (optional)", example = "Beverages")
             @RequestParam(required = false) String category,
             @Parameter(description = "Page number (0-indexed)", example = "0")
             @RequestParam(defaultValue = "0") int page,
-            @Parameter(description = "Page size", example = "50")
-            @RequestParam(defaultValue = "50") int size) {
+            @Parameter(description = "Page size (defaults to 50 when paging)", example = "50")
+            @RequestParam(required = false) Integer size,
+            @Parameter(description = "Continuation cursor from a previous slice; pass empty to start. Returns a slice instead of a page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest webRequest) {
         
         log.info("Get branch menu request for branch: {}", branchId);
         
-        Pageable pageable = PageRequest.of(page, size);
-        return menuService.getBranchMenu(branchId, category, pageable);
+        // Whole-menu requests are answered with the pre-rendered bytes, tagged with the version they were
+        // rendered from; that may be the previous version while the current one is being rebuilt
+        if (cursor == null && category == null && page == 0 && size == null) {
+            MenuPayload payload = menuService.getServedMenuPayload(branchId);
+            boolean gzip = acceptsGzip(acceptEncoding);
+            if (webRequest.checkNotModified(menuETag(branchId, payload.getMenuVersion(), gzip))) {
+                return null;
+            }
+            return payloadResponse(payload, gzip);
+        }
+        int pageSize = size != null ? size : DEFAULT_PAGE_SIZE;
+        
+        // Strong ETag per menu version; an unchanged menu is answered with 304 from the cached version alone
+        if (webRequest.checkNotModified(menuETag(branchId, menuService.getMenuVersion(branchId), false))) {
+            return null;
+        }
+        
+        // Cursor requests seek past the last item seen; page/size is kept for existing clients
+        if (cursor != null) {
+            return ResponseEntity.ok(menuService.getBranchMenuSlice(branchId, category, cursor, pageSize));
+        }
+        
+        Pageable pageable = PageRequest.of(page, pageSize);
+        return ResponseEntity.ok(menuService.getBranchMenu(branchId, category, pageable));
+    }
+    
+    @Operation(
+        summary = "Get menus of multiple branches",
+        description = "Returns the first menu items of up to 50 branches in one response, in the order of the ids. " +
+                      "Unknown branches are returned with found=false"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Branch menus retrieved successfully",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = BranchMenuResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "No branch ids, more than 50, or a negative limit",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        )
+    })
+    @GetMapping("/branches")
+    public List<BranchMenuResponse> getBranchMenus(
+            @Parameter(description = "Branch IDs (up to 50)", example = "1,2,3", required = true)
+            @RequestParam List<Long> ids,
+            @Parameter(description = "Menu items returned per branch", example = "5")
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        log.info("Get menus request for {} branches", ids.size());
+        return menuService.getBranchMenus(ids, limit);
+    }
+    
+    @Operation(
+        summary = "Get menu changes since a version",
+        description = "Returns menu items added, changed and removed after the given menu version. " +
+                      "If the change log no longer covers that version, the full menu is returned with fullSnapshot=true."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Menu changes retrieved successfully",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = MenuDeltaResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Branch not found",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        )
+    })
+    @GetMapping("/branches/{branchId}/changes")
+    public MenuDeltaResponse getMenuChanges(
+            @Parameter(description = "Branch ID", example = "1", required = true)
+            @PathVariable Long branchId,
+            @Parameter(description = "Menu version the client currently holds", example = "3", required = true)
+            @RequestParam Integer sinceVersion) {
+        
+        log.info("Get menu changes request for branch: {} since v{}", branchId, sinceVersion);
+        return menuService.getMenuChanges(branchId, sinceVersion);
+    }
+    
+    @Operation(
+        summary = "Get popular items",
+        description = "Returns the branch's best-selling menu items over the last hour, day or week, " +
+                      "ranked by quantity sold and then by number of orders"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Popular items retrieved successfully",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = PopularItemResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Branch not found",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        )
+    })
+    @GetMapping("/branches/{branchId}/popular")
+    public List<PopularItemResponse> getPopularItems(
+            @Parameter(description = "Branch ID", example = "1", required = true)
+            @PathVariable Long branchId,
+            @Parameter(description = "Ranking window", example = "DAY")
+            @RequestParam(defaultValue = "DAY") PopularityWindow window,
+            @Parameter(description = "Maximum number of items", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        log.info("Get popular items request for branch: {} over {}", branchId, window);
+        return popularItemsService.getPopularItems(branchId, window, limit);
     }
     
     @Operation(
@@ -227,6 +458,69 @@ public class MenuController {
         return menuService.updateMenuItem(menuItemId, request, requestingUserId);
     }
     
+    @Operation(
+        summary = "Batch update menu items",
+        description = "Applies a partial update (availability, price, price adjustment or preparation time) to many items " +
+                      "of a branch at once, selected by menuItemIds or by category and/or tag. Produces a single menu version"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Menu items updated",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = MenuItemBatchPatchResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid selector or update",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = ValidationErrorResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Not authorized to modify this branch's menu",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Branch not found",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        )
+    })
+    @PatchMapping("/branches/{branchId}")
+    public MenuItemBatchPatchResponse patchMenuItems(
+            @Parameter(description = "Branch ID", example = "1", required = true)
+            @PathVariable Long branchId,
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                description = "Item selector and partial update",
+                required = true,
+                content = @Content(
+                    schema = @Schema(implementation = MenuItemBatchPatchRequest.class),
+                    examples = @ExampleObject(
+                        value = "{\"category\": \"Snacks\", \"isAvailable\": false}"
+                    )
+                )
+            )
+            @Valid @RequestBody MenuItemBatchPatchRequest request) {
+        
+        log.info("Batch patch request for branch: {}", branchId);
+        
+        // For now, using a hardcoded userId. In production, this would come from authentication
+        UUID requestingUserId = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+        
+        return menuService.patchMenuItems(branchId, request, requestingUserId);
+    }
+    
     @Operation(
         summary = "Delete menu item",
         description = "Soft deletes a menu item (marks as deleted, doesn't remove from database)"
@@ -266,4 +560,58 @@ public class MenuController {
         
         menuService.deleteMenuItem(menuItemId, requestingUserId);
     }
+    
+    /**
+     * Strong ETag per menu version. The gzip body is a different byte sequence, so it gets its own tag.
+     */
+    private static String menuETag(Long branchId, Integer menuVersion, boolean gzip) {
+        return "\"menu-" + branchId + "-v" + menuVersion + (gzip ? "-gz" : "") + "\"";
+    }
+    
+    /**
+     * Whether the Accept-Encoding header allows gzip: an explicit gzip coding wins over "*", and q=0 refuses it.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean accepted = qualityOf(parts) > 0;
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                return accepted;
+            }
+            if (name.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+    
+    private static double qualityOf(String[] codingParts) {
+        for (int i = 1; i < codingParts.length; i++) {
+            String param = codingParts[i].trim();
+            if (param.length() > 2 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q') && param.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    // A malformed weight is treated as refusal rather than guessed at
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+    
+    private ResponseEntity<byte[]> payloadResponse(MenuPayload payload, boolean gzip) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(payload.getGzip());
+        }
+        return response.body(payload.getJson());
+    }
 }
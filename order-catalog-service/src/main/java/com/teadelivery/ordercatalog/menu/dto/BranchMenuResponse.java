@@ -0,0 +1,25 @@
+package com.teadelivery.ordercatalog.menu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One branch's entry in a multi-branch menu fetch. {@code items} holds the first
+ * {@code itemsPerBranch} menu items; unknown branches come back with {@code found = false}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BranchMenuResponse {
+    
+    private Long branchId;
+    private Boolean found;
+    private Integer menuVersion;
+    private Integer totalItems;
+    private List<MenuItemResponse> items;
+}
@@ -0,0 +1,23 @@
+package com.teadelivery.ordercatalog.menu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MenuDeltaResponse {
+    
+    private Long branchId;
+    private Integer fromVersion;
+    private Integer toVersion;
+    private Boolean fullSnapshot;  // true when the change log no longer covers fromVersion
+    private List<MenuItemResponse> added;
+    private List<MenuItemResponse> changed;
+    private List<Long> removed;
+}
@@ -0,0 +1,24 @@
+package com.teadelivery.ordercatalog.menu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One price and/or stock change pushed by a POS or aggregator feed. Fields left null keep their current value.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuFeedMessage {
+    
+    private Long branchId;
+    
+    private Long menuItemId;
+    
+    private BigDecimal price;
+    
+    private Boolean isAvailable;
+}
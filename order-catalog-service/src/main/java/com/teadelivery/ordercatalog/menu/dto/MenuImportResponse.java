@@ -0,0 +1,31 @@
+package com.teadelivery.ordercatalog.menu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MenuImportResponse {
+    
+    private Long branchId;
+    private Integer menuVersion;
+    private Integer totalRows;
+    private Integer importedCount;
+    private Integer failedCount;
+    private List<RowError> errors;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        // JSON lines: line number; CSV: data row number after the header (both 1-based)
+        private Integer row;
+        private String message;
+    }
+}
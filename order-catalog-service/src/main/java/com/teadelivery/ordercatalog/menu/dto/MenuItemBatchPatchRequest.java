@@ -0,0 +1,52 @@
+package com.teadelivery.ordercatalog.menu.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Partial update applied to many items of one branch. Items are selected either by id or by
+ * category and/or tag; only the fields that are set are changed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuItemBatchPatchRequest {
+    
+    // Selector
+    @Size(max = 1000, message = "At most 1000 menu item ids per request")
+    private List<Long> menuItemIds;
+    
+    private String category;
+    
+    private String tag;
+    
+    // Partial update
+    private Boolean isAvailable;
+    
+    @DecimalMin(value = "0.00", message = "Price must be greater than or equal to 0")
+    @DecimalMax(value = "999999.99", message = "Price must not exceed 999999.99")
+    private BigDecimal price;
+    
+    @DecimalMin(value = "-90", message = "Price adjustment must not be below -90%")
+    @DecimalMax(value = "500", message = "Price adjustment must not exceed 500%")
+    private BigDecimal priceAdjustmentPercent;
+    
+    @Min(value = 1, message = "Preparation time must be at least 1 minute")
+    @Max(value = 240, message = "Preparation time must not exceed 240 minutes")
+    private Integer preparationTimeMinutes;
+    
+    public boolean hasSingleSelector() {
+        boolean byIds = menuItemIds != null && !menuItemIds.isEmpty();
+        boolean byAttributes = category != null || tag != null;
+        return byIds != byAttributes;
+    }
+    
+    public boolean hasChanges() {
+        return isAvailable != null || price != null || priceAdjustmentPercent != null || preparationTimeMinutes != null;
+    }
+}
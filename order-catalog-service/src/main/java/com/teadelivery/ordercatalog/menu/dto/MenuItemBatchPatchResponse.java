@@ -0,0 +1,20 @@
+package com.teadelivery.ordercatalog.menu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MenuItemBatchPatchResponse {
+    
+    private Long branchId;
+    private Integer menuVersion;
+    private Integer updatedCount;
+    private List<Long> updatedItemIds;
+}
@@ -0,0 +1,21 @@
+package com.teadelivery.ordercatalog.menu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A branch menu version rendered once to its HTTP JSON body, with a gzip variant stored side by side.
+ */
+@Getter
+@AllArgsConstructor
+public class MenuPayload {
+    
+    private final Integer menuVersion;
+    private final int itemCount;
+    private final byte[] json;
+    private final byte[] gzip;
+    
+    public int sizeInBytes() {
+        return json.length + gzip.length;
+    }
+}
@@ -0,0 +1,26 @@
+package com.teadelivery.ordercatalog.menu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PopularItemResponse {
+    
+    private Integer rank;
+    private Long menuItemId;
+    private String name;
+    private String category;
+    private BigDecimal price;
+    private Boolean isAvailable;
+    private Map<String, Object> images;
+    private Long quantitySold;
+    private Long orderCount;
+}
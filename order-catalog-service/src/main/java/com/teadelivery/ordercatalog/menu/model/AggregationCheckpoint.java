@@ -0,0 +1,29 @@
+package com.teadelivery.ordercatalog.menu.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Watermark of an incremental aggregation: source rows created before {@code checkpointAt} are folded in.
+ */
+@Entity
+@Table(name = "aggregation_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AggregationCheckpoint {
+    
+    @Id
+    @Column(length = 100)
+    private String name;
+    
+    @Column(name = "checkpoint_at", nullable = false)
+    private LocalDateTime checkpointAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
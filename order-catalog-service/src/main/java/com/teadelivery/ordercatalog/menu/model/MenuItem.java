@@ -1,5 +1,6 @@
 package com.teadelivery.ordercatalog.menu.model;
 
+import com.teadelivery.ordercatalog.common.persistence.PooledIds;
 import com.teadelivery.ordercatalog.vendor.model.VendorBranch;
 import io.hypersistence.utils.hibernate.type.json.JsonBinaryType;
 import jakarta.persistence.*;
@@ -28,7 +29,8 @@ import java.util.*;
 public class MenuItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "menu_items_menu_item_id_seq")
+    @SequenceGenerator(name = "menu_items_menu_item_id_seq", sequenceName = "menu_items_menu_item_id_seq", allocationSize = PooledIds.ALLOCATION_SIZE)
     @Column(name = "menu_item_id")
     private Long menuItemId;
     
@@ -0,0 +1,46 @@
+package com.teadelivery.ordercatalog.menu.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the append-only branch menu change log; every menu version bump writes at least one.
+ */
+@Entity
+@Table(name = "menu_item_changes", indexes = {
+    @Index(name = "idx_menu_item_changes_branch_version", columnList = "branch_id,menu_version"),
+    @Index(name = "idx_menu_item_changes_changed_at", columnList = "changed_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuItemChange {
+    
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "change_id")
+    private Long changeId;
+    
+    @Column(name = "branch_id", nullable = false)
+    private Long branchId;
+    
+    @Column(name = "menu_item_id", nullable = false)
+    private Long menuItemId;
+    
+    @Column(name = "menu_version", nullable = false)
+    private Integer menuVersion;
+    
+    @Column(name = "change_type", nullable = false, length = 20)
+    private String changeType;
+    
+    @Column(name = "changed_at", nullable = false, updatable = false)
+    private LocalDateTime changedAt = LocalDateTime.now();
+}
@@ -0,0 +1,43 @@
+package com.teadelivery.ordercatalog.menu.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sales of one menu item within one time bucket, maintained incrementally from order_items.
+ */
+@Entity
+@Table(name = "menu_item_sales", uniqueConstraints = {
+    @UniqueConstraint(name = "uq_menu_item_sales_bucket", columnNames = {"branch_id", "bucket_start", "menu_item_id"})
+}, indexes = {
+    @Index(name = "idx_menu_item_sales_bucket_start", columnList = "bucket_start")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuItemSales {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "sales_id")
+    private Long salesId;
+    
+    @Column(name = "branch_id", nullable = false)
+    private Long branchId;
+    
+    @Column(name = "menu_item_id", nullable = false)
+    private Long menuItemId;
+    
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+    
+    @Column(nullable = false)
+    private Long quantity = 0L;
+    
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount = 0L;
+}
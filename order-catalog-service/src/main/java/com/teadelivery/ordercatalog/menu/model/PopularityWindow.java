@@ -0,0 +1,22 @@
+package com.teadelivery.ordercatalog.menu.model;
+
+import java.time.Duration;
+
+/**
+ * Sliding windows popular items are ranked over.
+ */
+public enum PopularityWindow {
+    HOUR(Duration.ofHours(1)),
+    DAY(Duration.ofDays(1)),
+    WEEK(Duration.ofDays(7));
+    
+    private final Duration duration;
+    
+    PopularityWindow(Duration duration) {
+        this.duration = duration;
+    }
+    
+    public Duration getDuration() {
+        return duration;
+    }
+}
@@ -0,0 +1,19 @@
+package com.teadelivery.ordercatalog.menu.repository;
+
+import com.teadelivery.ordercatalog.menu.model.AggregationCheckpoint;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AggregationCheckpointRepository extends JpaRepository<AggregationCheckpoint, String> {
+    
+    // Row lock serialises aggregation steps across instances
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM AggregationCheckpoint c WHERE c.name = :name")
+    Optional<AggregationCheckpoint> findByNameForUpdate(String name);
+}
@@ -0,0 +1,30 @@
+package com.teadelivery.ordercatalog.menu.repository;
+
+import com.teadelivery.ordercatalog.menu.dto.MenuFeedMessage;
+import com.teadelivery.ordercatalog.menu.dto.MenuItemBatchPatchRequest;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based menu item writes that bypass per-entity loading.
+ */
+public interface MenuItemBulkOperations {
+    
+    /**
+     * Applies the patch to the selected, non-deleted items of the branch in a single UPDATE.
+     * Items already holding the requested values are left untouched.
+     *
+     * @return ids of the items that actually changed
+     */
+    List<Long> patchItems(Long branchId, MenuItemBatchPatchRequest request);
+    
+    /**
+     * Applies per-item price and availability changes of one branch in a single UPDATE joined against
+     * the changes passed as arrays. Null fields keep the current value; unchanged, deleted and foreign
+     * items are skipped.
+     *
+     * @return ids of the items that actually changed
+     */
+    List<Long> applyFeedChanges(Long branchId, Collection<MenuFeedMessage> changes);
+}
@@ -0,0 +1,106 @@
+package com.teadelivery.ordercatalog.menu.repository;
+
+import com.teadelivery.ordercatalog.menu.dto.MenuFeedMessage;
+import com.teadelivery.ordercatalog.menu.dto.MenuItemBatchPatchRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class MenuItemBulkOperationsImpl implements MenuItemBulkOperations {
+    
+    private static final String APPLY_FEED_CHANGES_SQL =
+        "UPDATE menu_items m SET price = COALESCE(c.price, m.price), " +
+        "is_available = COALESCE(c.is_available, m.is_available), updated_at = CURRENT_TIMESTAMP " +
+        "FROM unnest(?::bigint[], ?::numeric[], ?::boolean[]) AS c(menu_item_id, price, is_available) " +
+        "WHERE m.menu_item_id = c.menu_item_id AND m.branch_id = ? AND m.is_deleted = false " +
+        "AND (m.price IS DISTINCT FROM COALESCE(c.price, m.price) " +
+        "OR m.is_available IS DISTINCT FROM COALESCE(c.is_available, m.is_available)) " +
+        "RETURNING m.menu_item_id";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    @Override
+    public List<Long> patchItems(Long branchId, MenuItemBatchPatchRequest request) {
+        List<String> assignments = new ArrayList<>();
+        List<String> differences = new ArrayList<>();
+        List<Object> setArgs = new ArrayList<>();
+        List<Object> differenceArgs = new ArrayList<>();
+        
+        if (request.getIsAvailable() != null) {
+            assign("is_available", "CAST(? AS BOOLEAN)", request.getIsAvailable(), assignments, differences, setArgs, differenceArgs);
+        }
+        if (request.getPrice() != null) {
+            assign("price", "CAST(? AS NUMERIC)", request.getPrice(), assignments, differences, setArgs, differenceArgs);
+        } else if (request.getPriceAdjustmentPercent() != null) {
+            BigDecimal factor = BigDecimal.ONE.add(request.getPriceAdjustmentPercent().movePointLeft(2));
+            assign("price", "ROUND(price * CAST(? AS NUMERIC), 2)", factor, assignments, differences, setArgs, differenceArgs);
+        }
+        if (request.getPreparationTimeMinutes() != null) {
+            assign("preparation_time_minutes", "CAST(? AS INTEGER)", request.getPreparationTimeMinutes(),
+                assignments, differences, setArgs, differenceArgs);
+        }
+        
+        StringBuilder sql = new StringBuilder("UPDATE menu_items SET ")
+            .append(String.join(", ", assignments))
+            .append(", updated_at = CURRENT_TIMESTAMP WHERE branch_id = ? AND is_deleted = false");
+        List<Object> args = new ArrayList<>(setArgs);
+        args.add(branchId);
+        
+        if (request.getMenuItemIds() != null && !request.getMenuItemIds().isEmpty()) {
+            sql.append(" AND menu_item_id = ANY(?)");
+            args.add(request.getMenuItemIds().toArray(new Long[0]));
+        }
+        if (request.getCategory() != null) {
+            sql.append(" AND category = ?");
+            args.add(request.getCategory());
+        }
+        if (request.getTag() != null) {
+            sql.append(" AND ? = ANY(tags)");
+            args.add(request.getTag());
+        }
+        
+        // Skip rows that already hold the requested values
+        sql.append(" AND (").append(String.join(" OR ", differences)).append(") RETURNING menu_item_id");
+        args.addAll(differenceArgs);
+        
+        return jdbcTemplate.queryForList(sql.toString(), Long.class, args.toArray());
+    }
+    
+    @Override
+    public List<Long> applyFeedChanges(Long branchId, Collection<MenuFeedMessage> changes) {
+        Long[] menuItemIds = new Long[changes.size()];
+        BigDecimal[] prices = new BigDecimal[changes.size()];
+        Boolean[] availability = new Boolean[changes.size()];
+        int i = 0;
+        for (MenuFeedMessage change : changes) {
+            menuItemIds[i] = change.getMenuItemId();
+            prices[i] = change.getPrice();
+            availability[i] = change.getIsAvailable();
+            i++;
+        }
+        
+        return jdbcTemplate.query((Connection connection) -> {
+            PreparedStatement ps = connection.prepareStatement(APPLY_FEED_CHANGES_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", menuItemIds));
+            ps.setArray(2, connection.createArrayOf("numeric", prices));
+            ps.setArray(3, connection.createArrayOf("boolean", availability));
+            ps.setLong(4, branchId);
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1));
+    }
+    
+    private void assign(String column, String expression, Object value, List<String> assignments,
+                        List<String> differences, List<Object> setArgs, List<Object> differenceArgs) {
+        assignments.add(column + " = " + expression);
+        setArgs.add(value);
+        differences.add(column + " IS DISTINCT FROM " + expression);
+        differenceArgs.add(value);
+    }
+}
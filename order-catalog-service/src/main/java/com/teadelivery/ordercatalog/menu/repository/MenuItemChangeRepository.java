@@ -0,0 +1,25 @@
+package com.teadelivery.ordercatalog.menu.repository;
+
+import com.teadelivery.ordercatalog.menu.model.MenuItemChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MenuItemChangeRepository extends JpaRepository<MenuItemChange, Long> {
+    
+    @Query("SELECT c FROM MenuItemChange c WHERE c.branchId = :branchId AND c.menuVersion > :fromVersion " +
+           "AND c.menuVersion <= :toVersion ORDER BY c.menuVersion, c.changeId")
+    List<MenuItemChange> findChangesBetween(Long branchId, Integer fromVersion, Integer toVersion);
+    
+    @Query("SELECT MIN(c.menuVersion) FROM MenuItemChange c WHERE c.branchId = :branchId")
+    Integer findOldestRetainedVersion(Long branchId);
+    
+    @Modifying
+    @Query("DELETE FROM MenuItemChange c WHERE c.changedAt < :cutoff")
+    int deleteChangedBefore(LocalDateTime cutoff);
+}
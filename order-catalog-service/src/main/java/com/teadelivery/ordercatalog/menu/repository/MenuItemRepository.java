@@ -2,23 +2,33 @@ package com.teadelivery.ordercatalog.menu.repository;
 
 import com.teadelivery.ordercatalog.menu.model.MenuItem;
 import com.teadelivery.ordercatalog.vendor.model.VendorBranch;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
+public interface MenuItemRepository extends JpaRepository<MenuItem, Long>, MenuItemBulkOperations {
     List<MenuItem> findByBranchAndIsDeletedFalse(VendorBranch branch);
-    Page<MenuItem> findByBranchAndIsDeletedFalse(VendorBranch branch, Pageable pageable);
-    Page<MenuItem> findByBranchAndCategoryAndIsDeletedFalse(VendorBranch branch, String category, Pageable pageable);
-    Page<MenuItem> findByBranchAndIsAvailableTrueAndIsDeletedFalse(VendorBranch branch, Pageable pageable);
+    List<MenuItem> findByBranchAndIsDeletedFalseOrderByMenuItemIdAsc(VendorBranch branch);
+    
+    @Query("SELECT m FROM MenuItem m WHERE m.branch.branchId IN :branchIds AND m.isDeleted = false " +
+           "ORDER BY m.branch.branchId, m.menuItemId")
+    List<MenuItem> findMenusByBranchIds(Collection<Long> branchIds);
+    Slice<MenuItem> findByBranchAndIsDeletedFalse(VendorBranch branch, Pageable pageable);
+    Slice<MenuItem> findByBranchAndCategoryAndIsDeletedFalse(VendorBranch branch, String category, Pageable pageable);
+    Slice<MenuItem> findByBranchAndIsAvailableTrueAndIsDeletedFalse(VendorBranch branch, Pageable pageable);
     Optional<MenuItem> findByMenuItemIdAndIsDeletedFalse(Long menuItemId);
     
+    @Query("SELECT m.menuItemId FROM MenuItem m WHERE m.branch.branchId = :branchId AND m.menuItemId IN :menuItemIds " +
+           "AND m.isDeleted = false")
+    List<Long> findLiveMenuItemIds(Long branchId, Collection<Long> menuItemIds);
+    
     @Query("SELECT COUNT(m) FROM MenuItem m WHERE m.branch = :branch AND m.isAvailable = true AND m.isDeleted = false")
     long countAvailableItems(VendorBranch branch);
 }
@@ -0,0 +1,50 @@
+package com.teadelivery.ordercatalog.menu.repository;
+
+import com.teadelivery.ordercatalog.menu.model.MenuItemSales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MenuItemSalesRepository extends JpaRepository<MenuItemSales, Long> {
+    
+    /**
+     * Per-item totals for a branch since {@code since}, best sellers first.
+     */
+    interface ItemSalesTotal {
+        Long getMenuItemId();
+        Long getQuantity();
+        Long getOrderCount();
+    }
+    
+    @Query(value = "SELECT DISTINCT o.branch_id FROM order_items oi JOIN orders o ON o.order_id = oi.order_id " +
+                   "WHERE oi.created_at >= :from AND oi.created_at < :to", nativeQuery = true)
+    List<Long> findBranchesWithOrderItemsBetween(LocalDateTime from, LocalDateTime to);
+    
+    // Folds order items created in [from, to) into their ordered_at buckets
+    @Modifying
+    @Query(value = "INSERT INTO menu_item_sales (branch_id, menu_item_id, bucket_start, quantity, order_count) " +
+                   "SELECT o.branch_id, oi.menu_item_id, " +
+                   "to_timestamp(floor(extract(epoch FROM o.ordered_at) / :bucketSeconds) * :bucketSeconds), " +
+                   "SUM(oi.quantity), COUNT(DISTINCT oi.order_id) " +
+                   "FROM order_items oi JOIN orders o ON o.order_id = oi.order_id " +
+                   "WHERE oi.created_at >= :from AND oi.created_at < :to " +
+                   "GROUP BY 1, 2, 3 " +
+                   "ON CONFLICT (branch_id, bucket_start, menu_item_id) DO UPDATE SET " +
+                   "quantity = menu_item_sales.quantity + EXCLUDED.quantity, " +
+                   "order_count = menu_item_sales.order_count + EXCLUDED.order_count", nativeQuery = true)
+    int foldOrderItems(LocalDateTime from, LocalDateTime to, long bucketSeconds);
+    
+    @Query("SELECT s.menuItemId AS menuItemId, SUM(s.quantity) AS quantity, SUM(s.orderCount) AS orderCount " +
+           "FROM MenuItemSales s WHERE s.branchId = :branchId AND s.bucketStart >= :since " +
+           "GROUP BY s.menuItemId ORDER BY SUM(s.quantity) DESC, SUM(s.orderCount) DESC, s.menuItemId ASC")
+    List<ItemSalesTotal> findItemTotalsSince(Long branchId, LocalDateTime since);
+    
+    @Modifying
+    @Query("DELETE FROM MenuItemSales s WHERE s.bucketStart < :cutoff")
+    int deleteBucketsBefore(LocalDateTime cutoff);
+}
@@ -0,0 +1,74 @@
+package com.teadelivery.ordercatalog.menu.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: comma separated, double-quoted fields may contain commas,
+ * line breaks and doubled quotes. Reads one record at a time from the underlying reader; an
+ * unterminated quote is reported as an {@link IllegalArgumentException}.
+ */
+class CsvRecordReader {
+    
+    private final BufferedReader reader;
+    
+    CsvRecordReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+    
+    /**
+     * Next record, or {@code null} at end of input. Blank lines are returned as an empty list.
+     */
+    List<String> next() throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        if (line.isBlank()) {
+            return List.of();
+        }
+        
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                // Quoted field continues on the next physical line
+                String continuation = reader.readLine();
+                if (continuation == null) {
+                    throw new IllegalArgumentException("CSV has an unterminated quoted field");
+                }
+                field.append('\n');
+                line = continuation;
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"' && i < line.length() && line.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
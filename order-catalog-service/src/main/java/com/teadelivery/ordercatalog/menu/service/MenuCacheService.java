@@ -1,32 +1,129 @@
 package com.teadelivery.ordercatalog.menu.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.teadelivery.ordercatalog.common.cache.AfterCommit;
+import com.teadelivery.ordercatalog.common.cache.CacheInvalidationBus;
+import com.teadelivery.ordercatalog.common.cache.TieredCacheMetrics;
 import com.teadelivery.ordercatalog.menu.dto.MenuItemResponse;
-import lombok.RequiredArgsConstructor;
+import com.teadelivery.ordercatalog.menu.dto.MenuPayload;
+import com.teadelivery.ordercatalog.menu.dto.PopularItemResponse;
+import com.teadelivery.ordercatalog.menu.model.PopularityWindow;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class MenuCacheService {
     
     private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisTemplate<String, byte[]> binaryRedisTemplate;
+    private final CacheInvalidationBus invalidationBus;
+    private final Cache<Long, Map<Integer, List<MenuItemResponse>>> nearMenus;
+    private final Cache<Long, Map<Integer, MenuPayload>> nearPayloads;
+    private final Cache<Long, Integer> nearVersions;
+    private final TieredCacheMetrics metrics;
+    private final TieredCacheMetrics payloadMetrics;
+    private final TieredCacheMetrics versionMetrics;
+    private final Duration staleMaxAge;
     
     private static final String BRANCH_MENU_KEY = "branch:%s:menu:v%d";
-    private static final String POPULAR_ITEMS_KEY = "branch:%s:popular-items";
+    private static final String BRANCH_MENU_PAYLOAD_KEY = "branch:%s:menu:v%d:payload";
+    private static final String PAYLOAD_COUNT_FIELD = "count";
+    private static final String PAYLOAD_JSON_FIELD = "json";
+    private static final String PAYLOAD_GZIP_FIELD = "gzip";
+    private static final String BRANCH_MENU_VERSIONS_KEY = "branch:%s:menu:versions";
+    private static final String BRANCH_MENU_CURRENT_KEY = "branch:%s:menu:current";
+    private static final String BRANCH_MENU_STALE_KEY = "branch:%s:menu:stale";
+    private static final String POPULAR_ITEMS_KEY = "branch:%s:popular-items:%s";
+    public static final String INVALIDATION_REGION = "menu";
     private static final Duration MENU_TTL = Duration.ofHours(1);
     private static final Duration POPULAR_ITEMS_TTL = Duration.ofMinutes(15);
+    // Raise-only: a writer whose after-commit publish runs late never moves readers back to an older version
+    private static final RedisScript<Long> PUBLISH_VERSION_SCRIPT = new DefaultRedisScript<>(
+        "local current = tonumber(redis.call('GET', KEYS[1])) " +
+        "if current and current >= tonumber(ARGV[1]) then return 0 end " +
+        "redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2]) return 1",
+        Long.class);
+    
+    public MenuCacheService(RedisTemplate<String, Object> redisTemplate,
+                            RedisTemplate<String, byte[]> binaryRedisTemplate,
+                            CacheInvalidationBus invalidationBus,
+                            MeterRegistry meterRegistry,
+                            @Value("${cache.near.menu.max-items:200000}") long maxNearMenuItems,
+                            @Value("${cache.near.menu-payload.max-bytes:67108864}") long maxNearPayloadBytes,
+                            @Value("${cache.near.branch.max-size:50000}") long maxNearVersions,
+                            @Value("${cache.near.ttl:PT5M}") Duration nearTtl,
+                            @Value("${cache.menu.stale-max-age:PT30S}") Duration staleMaxAge) {
+        this.redisTemplate = redisTemplate;
+        this.binaryRedisTemplate = binaryRedisTemplate;
+        this.invalidationBus = invalidationBus;
+        this.nearMenus = Caffeine.newBuilder()
+            .maximumWeight(maxNearMenuItems)
+            .weigher((Long branchId, Map<Integer, List<MenuItemResponse>> menus) ->
+                Math.max(1, menus.values().stream().mapToInt(List::size).sum()))
+            .expireAfterWrite(nearTtl)
+            .recordStats()
+            .build();
+        this.nearPayloads = Caffeine.newBuilder()
+            .maximumWeight(maxNearPayloadBytes)
+            .weigher((Long branchId, Map<Integer, MenuPayload> payloads) ->
+                payloads.values().stream().mapToInt(MenuPayload::sizeInBytes).sum())
+            .expireAfterWrite(nearTtl)
+            .recordStats()
+            .build();
+        this.nearVersions = Caffeine.newBuilder()
+            .maximumSize(maxNearVersions)
+            .expireAfterWrite(nearTtl)
+            .recordStats()
+            .build();
+        this.metrics = new TieredCacheMetrics(meterRegistry, "branch-menu", nearMenus);
+        this.payloadMetrics = new TieredCacheMetrics(meterRegistry, "branch-menu-payload", nearPayloads);
+        this.versionMetrics = new TieredCacheMetrics(meterRegistry, "branch-menu-version", nearVersions);
+        this.staleMaxAge = staleMaxAge;
+        invalidationBus.subscribe(INVALIDATION_REGION, this::evictNearMenu);
+    }
+    
+    public String branchMenuKey(Long branchId, Integer version) {
+        return String.format(BRANCH_MENU_KEY, branchId, version);
+    }
+    
+    public String menuPayloadKey(Long branchId, Integer version) {
+        return String.format(BRANCH_MENU_PAYLOAD_KEY, branchId, version);
+    }
     
     public void cacheBranchMenu(Long branchId, Integer version, List<MenuItemResponse> menu) {
+        List<MenuItemResponse> snapshot = List.copyOf(menu);
+        putNear(nearMenus, branchId, version, snapshot);
+        metrics.rebuild();
         try {
             String key = String.format(BRANCH_MENU_KEY, branchId, version);
-            redisTemplate.opsForValue().set(key, menu, MENU_TTL);
+            String versionsKey = String.format(BRANCH_MENU_VERSIONS_KEY, branchId);
+            // Register the version alongside the payload so eviction never has to scan the keyspace
+            pipelined(redisTemplate, ops -> {
+                ops.opsForValue().set(key, snapshot, MENU_TTL);
+                ops.opsForSet().add(versionsKey, version);
+                ops.expire(versionsKey, MENU_TTL);
+            });
             log.debug("Cached branch menu: {} v{}", branchId, version);
         } catch (Exception e) {
             log.warn("Failed to cache branch menu: {}", e.getMessage());
@@ -34,49 +131,355 @@ public class MenuCacheService {
     }
     
     public List<MenuItemResponse> getBranchMenu(Long branchId, Integer version) {
+        List<MenuItemResponse> near = getNear(nearMenus, branchId, version);
+        if (near != null) {
+            return near;
+        }
         try {
             String key = String.format(BRANCH_MENU_KEY, branchId, version);
             Object cached = redisTemplate.opsForValue().get(key);
             if (cached instanceof List) {
                 log.debug("Cache hit for branch menu: {} v{}", branchId, version);
-                return (List<MenuItemResponse>) cached;
+                metrics.redisHit();
+                List<MenuItemResponse> menu = typedList((List<?>) cached, MenuItemResponse.class);
+                putNear(nearMenus, branchId, version, menu);
+                return menu;
             }
+            metrics.redisMiss();
         } catch (Exception e) {
             log.warn("Failed to retrieve cached menu: {}", e.getMessage());
         }
         return null;
     }
     
+    /**
+     * Cached menus for many branches: near cache first, then one MGET for the rest.
+     * Branches missing from the result have to be loaded from the database.
+     */
+    public Map<Long, List<MenuItemResponse>> getBranchMenus(Map<Long, Integer> versions) {
+        Map<Long, List<MenuItemResponse>> menus = new HashMap<>();
+        List<Long> remoteBranchIds = new ArrayList<>();
+        versions.forEach((branchId, version) -> {
+            List<MenuItemResponse> near = getNear(nearMenus, branchId, version);
+            if (near != null) {
+                menus.put(branchId, near);
+            } else {
+                remoteBranchIds.add(branchId);
+            }
+        });
+        if (remoteBranchIds.isEmpty()) {
+            return menus;
+        }
+        try {
+            List<String> keys = remoteBranchIds.stream()
+                .map(branchId -> String.format(BRANCH_MENU_KEY, branchId, versions.get(branchId)))
+                .toList();
+            List<Object> cached = redisTemplate.opsForValue().multiGet(keys);
+            for (int i = 0; i < remoteBranchIds.size(); i++) {
+                Long branchId = remoteBranchIds.get(i);
+                if (cached != null && cached.get(i) instanceof List<?> list) {
+                    metrics.redisHit();
+                    List<MenuItemResponse> menu = typedList(list, MenuItemResponse.class);
+                    putNear(nearMenus, branchId, versions.get(branchId), menu);
+                    menus.put(branchId, menu);
+                } else {
+                    metrics.redisMiss();
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to retrieve cached menus: {}", e.getMessage());
+        }
+        return menus;
+    }
+    
+    /**
+     * Caches menus loaded together from the database in a single pipeline.
+     */
+    public void cacheBranchMenus(Map<Long, Integer> versions, Map<Long, List<MenuItemResponse>> menus) {
+        Map<Long, List<MenuItemResponse>> snapshots = new HashMap<>();
+        menus.forEach((branchId, menu) -> {
+            List<MenuItemResponse> snapshot = List.copyOf(menu);
+            putNear(nearMenus, branchId, versions.get(branchId), snapshot);
+            metrics.rebuild();
+            snapshots.put(branchId, snapshot);
+        });
+        try {
+            pipelined(redisTemplate, ops -> {
+                snapshots.forEach((branchId, snapshot) -> {
+                    Integer version = versions.get(branchId);
+                    String versionsKey = String.format(BRANCH_MENU_VERSIONS_KEY, branchId);
+                    ops.opsForValue().set(String.format(BRANCH_MENU_KEY, branchId, version), snapshot, MENU_TTL);
+                    ops.opsForSet().add(versionsKey, version);
+                    ops.expire(versionsKey, MENU_TTL);
+                });
+            });
+            log.debug("Cached {} branch menus", snapshots.size());
+        } catch (Exception e) {
+            log.warn("Failed to cache branch menus: {}", e.getMessage());
+        }
+    }
+    
+    public void cacheMenuPayload(Long branchId, Integer version, MenuPayload payload) {
+        putNear(nearPayloads, branchId, version, payload);
+        payloadMetrics.rebuild();
+        try {
+            String key = String.format(BRANCH_MENU_PAYLOAD_KEY, branchId, version);
+            String versionsKey = String.format(BRANCH_MENU_VERSIONS_KEY, branchId);
+            // Versions are registered in the same encoding the object template reads them back with
+            byte[] versionMember = serializeValue(version);
+            Map<String, byte[]> fields = Map.of(
+                PAYLOAD_COUNT_FIELD, String.valueOf(payload.getItemCount()).getBytes(StandardCharsets.UTF_8),
+                PAYLOAD_JSON_FIELD, payload.getJson(),
+                PAYLOAD_GZIP_FIELD, payload.getGzip());
+            pipelined(binaryRedisTemplate, ops -> {
+                ops.opsForHash().putAll(key, fields);
+                ops.expire(key, MENU_TTL);
+                ops.opsForSet().add(versionsKey, versionMember);
+                ops.expire(versionsKey, MENU_TTL);
+            });
+            log.debug("Cached branch menu payload: {} v{}", branchId, version);
+        } catch (Exception e) {
+            log.warn("Failed to cache branch menu payload: {}", e.getMessage());
+        }
+    }
+    
+    public MenuPayload getMenuPayload(Long branchId, Integer version) {
+        MenuPayload near = getNear(nearPayloads, branchId, version);
+        if (near != null) {
+            return near;
+        }
+        try {
+            String key = String.format(BRANCH_MENU_PAYLOAD_KEY, branchId, version);
+            List<Object> fields = binaryRedisTemplate.opsForHash().multiGet(key,
+                List.of(PAYLOAD_COUNT_FIELD, PAYLOAD_JSON_FIELD, PAYLOAD_GZIP_FIELD));
+            if (fields.size() == 3 && fields.get(0) instanceof byte[] count
+                    && fields.get(1) instanceof byte[] json && fields.get(2) instanceof byte[] gzip) {
+                log.debug("Cache hit for branch menu payload: {} v{}", branchId, version);
+                payloadMetrics.redisHit();
+                MenuPayload payload = new MenuPayload(version,
+                    Integer.parseInt(new String(count, StandardCharsets.UTF_8)), json, gzip);
+                putNear(nearPayloads, branchId, version, payload);
+                return payload;
+            }
+            payloadMetrics.redisMiss();
+        } catch (Exception e) {
+            log.warn("Failed to retrieve cached menu payload: {}", e.getMessage());
+        }
+        return null;
+    }
+    
+    /**
+     * Current menu version of a branch, used for cheap ETag checks without touching the database.
+     */
+    public Integer getMenuVersion(Long branchId) {
+        Integer near = nearVersions.getIfPresent(branchId);
+        if (near != null) {
+            return near;
+        }
+        try {
+            Integer version = parseVersion(
+                binaryRedisTemplate.opsForValue().get(String.format(BRANCH_MENU_CURRENT_KEY, branchId)));
+            if (version != null) {
+                versionMetrics.redisHit();
+                return nearVersions.asMap().merge(branchId, version, Math::max);
+            }
+            versionMetrics.redisMiss();
+        } catch (Exception e) {
+            log.warn("Failed to retrieve cached menu version: {}", e.getMessage());
+        }
+        return null;
+    }
+    
+    /**
+     * Current menu versions for many branches: near cache first, then one MGET for the rest.
+     */
+    public Map<Long, Integer> getMenuVersions(Collection<Long> branchIds) {
+        Map<Long, Integer> versions = new HashMap<>();
+        List<Long> remoteBranchIds = new ArrayList<>();
+        for (Long branchId : branchIds) {
+            Integer near = nearVersions.getIfPresent(branchId);
+            if (near != null) {
+                versions.put(branchId, near);
+            } else {
+                remoteBranchIds.add(branchId);
+            }
+        }
+        if (remoteBranchIds.isEmpty()) {
+            return versions;
+        }
+        try {
+            List<String> keys = remoteBranchIds.stream()
+                .map(branchId -> String.format(BRANCH_MENU_CURRENT_KEY, branchId))
+                .toList();
+            List<byte[]> cached = binaryRedisTemplate.opsForValue().multiGet(keys);
+            for (int i = 0; i < remoteBranchIds.size(); i++) {
+                Long branchId = remoteBranchIds.get(i);
+                Integer version = cached == null ? null : parseVersion(cached.get(i));
+                if (version != null) {
+                    versionMetrics.redisHit();
+                    versions.put(branchId, nearVersions.asMap().merge(branchId, version, Math::max));
+                } else {
+                    versionMetrics.redisMiss();
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to retrieve cached menu versions: {}", e.getMessage());
+        }
+        return versions;
+    }
+    
+    /**
+     * Batch form of {@link #cacheMenuVersion}, pipelined.
+     */
+    public void cacheMenuVersions(Map<Long, Integer> versions) {
+        versions.forEach((branchId, version) -> nearVersions.asMap().merge(branchId, version, Math::max));
+        try {
+            pipelined(binaryRedisTemplate, ops -> {
+                versions.forEach((branchId, version) -> ops.opsForValue()
+                    .setIfAbsent(String.format(BRANCH_MENU_CURRENT_KEY, branchId), versionBytes(version), MENU_TTL));
+            });
+        } catch (Exception e) {
+            log.warn("Failed to cache menu versions: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Records a version read from the database. Never overwrites a pointer that is already set, since
+     * that may have been published by a writer that committed after this read.
+     */
+    public void cacheMenuVersion(Long branchId, Integer version) {
+        nearVersions.asMap().merge(branchId, version, Math::max);
+        try {
+            binaryRedisTemplate.opsForValue()
+                .setIfAbsent(String.format(BRANCH_MENU_CURRENT_KEY, branchId), versionBytes(version), MENU_TTL);
+        } catch (Exception e) {
+            log.warn("Failed to cache menu version: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Once the transaction that bumped the menu version commits, points readers at the new
+     * version and evicts every cached copy of the old ones, except the newest old payload which
+     * stays readable for {@code cache.menu.stale-max-age} as the stale-while-revalidate copy.
+     * A version older than the one already published is dropped; its publisher evicted for it.
+     */
+    public void publishMenuVersionAfterCommit(Long branchId, Integer version) {
+        AfterCommit.run(() -> {
+            if (publishMenuVersion(branchId, version)) {
+                evictBranchMenu(branchId, version);
+            } else {
+                log.debug("Menu v{} of branch {} already superseded, not published", version, branchId);
+            }
+        });
+    }
+    
+    /**
+     * Version the shared pointer publishes right now, bypassing the near cache.
+     */
+    public Integer getPublishedMenuVersion(Long branchId) {
+        try {
+            return parseVersion(binaryRedisTemplate.opsForValue().get(String.format(BRANCH_MENU_CURRENT_KEY, branchId)));
+        } catch (Exception e) {
+            log.warn("Failed to retrieve published menu version: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    private boolean publishMenuVersion(Long branchId, Integer version) {
+        try {
+            Long raised = binaryRedisTemplate.execute(PUBLISH_VERSION_SCRIPT,
+                List.of(String.format(BRANCH_MENU_CURRENT_KEY, branchId)),
+                versionBytes(version), String.valueOf(MENU_TTL.toMillis()).getBytes(StandardCharsets.UTF_8));
+            return !Long.valueOf(0).equals(raised);
+        } catch (Exception e) {
+            // Evict anyway; readers fall back to the database version
+            log.warn("Failed to publish menu version: {}", e.getMessage());
+            return true;
+        }
+    }
+    
+    /**
+     * Previous menu version whose payload may still be served while the current one is rebuilt,
+     * or {@code null} once {@code cache.menu.stale-max-age} has passed since it was superseded.
+     */
+    public Integer getStaleMenuVersion(Long branchId) {
+        try {
+            Object cached = redisTemplate.opsForValue().get(String.format(BRANCH_MENU_STALE_KEY, branchId));
+            if (cached instanceof Number version) {
+                return version.intValue();
+            }
+        } catch (Exception e) {
+            log.warn("Failed to retrieve stale menu version: {}", e.getMessage());
+        }
+        return null;
+    }
+    
     public void evictBranchMenu(Long branchId) {
+        evictBranchMenu(branchId, null);
+    }
+    
+    private void evictBranchMenu(Long branchId, Integer publishedVersion) {
         try {
-            String pattern = String.format("branch:%s:menu:v*", branchId);
-            Set<String> keys = redisTemplate.keys(pattern);
-            if (keys != null && !keys.isEmpty()) {
-                redisTemplate.delete(keys);
-                log.debug("Evicted all menu versions for branch: {}", branchId);
+            String versionsKey = String.format(BRANCH_MENU_VERSIONS_KEY, branchId);
+            Set<Object> versions = redisTemplate.opsForSet().members(versionsKey);
+            Integer staleVersion = publishedVersion == null || versions == null ? null : versions.stream()
+                .filter(Number.class::isInstance)
+                .map(version -> ((Number) version).intValue())
+                .filter(version -> version < publishedVersion)
+                .max(Integer::compare)
+                .orElse(null);
+            List<String> keys = new ArrayList<>();
+            if (versions != null) {
+                for (Object version : versions) {
+                    // Members written in a previous serialization format read as null
+                    if (!(version instanceof Number number)) {
+                        continue;
+                    }
+                    int v = number.intValue();
+                    keys.add(String.format(BRANCH_MENU_KEY, branchId, v));
+                    if (staleVersion == null || v != staleVersion) {
+                        keys.add(String.format(BRANCH_MENU_PAYLOAD_KEY, branchId, v));
+                    }
+                }
+            }
+            if (staleVersion != null && Boolean.TRUE.equals(
+                    redisTemplate.expire(String.format(BRANCH_MENU_PAYLOAD_KEY, branchId, staleVersion), staleMaxAge))) {
+                redisTemplate.opsForValue().set(String.format(BRANCH_MENU_STALE_KEY, branchId), staleVersion, staleMaxAge);
+            }
+            keys.add(versionsKey);
+            Long deleted = redisTemplate.delete(keys);
+            if (deleted != null && deleted > 1) {
+                // The registry key itself is not counted as an evicted menu
+                metrics.redisEvictions(deleted - 1);
             }
+            log.debug("Evicted {} menu versions for branch: {}", versions == null ? 0 : versions.size(), branchId);
         } catch (Exception e) {
             log.warn("Failed to evict cache: {}", e.getMessage());
         }
+        invalidationBus.invalidate(INVALIDATION_REGION, branchId);
     }
     
-    public void cachePopularItems(Long branchId, List<MenuItemResponse> items) {
+    public void evictPopularItemsAfterCommit(Long branchId) {
+        AfterCommit.run(() -> evictPopularItems(branchId));
+    }
+    
+    public void cachePopularItems(Long branchId, PopularityWindow window, List<PopularItemResponse> items) {
         try {
-            String key = String.format(POPULAR_ITEMS_KEY, branchId);
+            String key = String.format(POPULAR_ITEMS_KEY, branchId, window);
             redisTemplate.opsForValue().set(key, items, POPULAR_ITEMS_TTL);
-            log.debug("Cached popular items for branch: {}", branchId);
+            log.debug("Cached {} popular items for branch: {}", window, branchId);
         } catch (Exception e) {
             log.warn("Failed to cache popular items: {}", e.getMessage());
         }
     }
     
-    public List<MenuItemResponse> getPopularItems(Long branchId) {
+    public List<PopularItemResponse> getPopularItems(Long branchId, PopularityWindow window) {
         try {
-            String key = String.format(POPULAR_ITEMS_KEY, branchId);
+            String key = String.format(POPULAR_ITEMS_KEY, branchId, window);
             Object cached = redisTemplate.opsForValue().get(key);
             if (cached instanceof List) {
-                log.debug("Cache hit for popular items: {}", branchId);
-                return (List<MenuItemResponse>) cached;
+                log.debug("Cache hit for {} popular items: {}", window, branchId);
+                return typedList((List<?>) cached, PopularItemResponse.class);
             }
         } catch (Exception e) {
             log.warn("Failed to retrieve popular items: {}", e.getMessage());
@@ -86,11 +489,88 @@ public class MenuCacheService {
     
     public void evictPopularItems(Long branchId) {
         try {
-            String key = String.format(POPULAR_ITEMS_KEY, branchId);
-            redisTemplate.delete(key);
+            List<String> keys = Arrays.stream(PopularityWindow.values())
+                .map(window -> String.format(POPULAR_ITEMS_KEY, branchId, window))
+                .toList();
+            redisTemplate.delete(keys);
             log.debug("Evicted popular items for branch: {}", branchId);
         } catch (Exception e) {
             log.warn("Failed to evict popular items: {}", e.getMessage());
         }
     }
+    
+    /**
+     * Near caches hold one entry per branch mapping version to value, so an invalidation is a single
+     * remove. Every version bump drops the branch, so the map rarely holds more than the current version;
+     * a branch cached under another version still counts as a near hit in the cache stats.
+     */
+    private static <V> V getNear(Cache<Long, Map<Integer, V>> cache, Long branchId, Integer version) {
+        Map<Integer, V> byVersion = cache.getIfPresent(branchId);
+        return byVersion == null ? null : byVersion.get(version);
+    }
+    
+    private static <V> void putNear(Cache<Long, Map<Integer, V>> cache, Long branchId, Integer version, V value) {
+        // Replaced through merge so the entry is re-weighed
+        cache.asMap().merge(branchId, Map.of(version, value), (current, added) -> {
+            Map<Integer, V> merged = new HashMap<>(current);
+            merged.putAll(added);
+            return Map.copyOf(merged);
+        });
+    }
+    
+    /**
+     * Runs the commands in one pipeline. {@link SessionCallback} erases the template's type parameters,
+     * but the operations it hands back are the given template's own.
+     */
+    @SuppressWarnings("unchecked")
+    private static <V> void pipelined(RedisTemplate<String, V> template, Consumer<RedisOperations<String, V>> commands) {
+        template.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public <K, X> Object execute(RedisOperations<K, X> operations) {
+                commands.accept((RedisOperations<String, V>) operations);
+                return null;
+            }
+        });
+    }
+    
+    /**
+     * Encodes a value the way the object template writes it. RedisConfig builds that template with a
+     * {@code RedisSerializer<Object>}, which the template's getter only exposes as a wildcard.
+     */
+    @SuppressWarnings("unchecked")
+    private byte[] serializeValue(Object value) {
+        return ((RedisSerializer<Object>) redisTemplate.getValueSerializer()).serialize(value);
+    }
+    
+    /**
+     * The current-version pointer is a plain decimal string so the publish script can compare it.
+     */
+    private static byte[] versionBytes(Integer version) {
+        return String.valueOf(version).getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private static Integer parseVersion(byte[] value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(new String(value, StandardCharsets.UTF_8));
+        } catch (NumberFormatException e) {
+            // Pointers written in an earlier encoding read as a miss until they expire or are republished
+            return null;
+        }
+    }
+    
+    /**
+     * Checks every element of a deserialized list instead of trusting an unchecked cast.
+     */
+    private static <T> List<T> typedList(List<?> list, Class<T> type) {
+        return list.stream().map(type::cast).toList();
+    }
+    
+    private void evictNearMenu(Long branchId) {
+        nearMenus.invalidate(branchId);
+        nearPayloads.invalidate(branchId);
+        nearVersions.invalidate(branchId);
+    }
 }
@@ -0,0 +1,98 @@
+package com.teadelivery.ordercatalog.menu.service;
+
+import com.teadelivery.ordercatalog.menu.model.MenuItemChange;
+import com.teadelivery.ordercatalog.menu.repository.MenuItemChangeRepository;
+import com.teadelivery.ordercatalog.outbox.OutboxWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@Slf4j
+public class MenuChangeLogService {
+    
+    private static final String INSERT_CHANGE_SQL =
+        "INSERT INTO menu_item_changes (branch_id, menu_item_id, menu_version, change_type, changed_at) " +
+        "VALUES (?, ?, ?, ?, ?)";
+    
+    private final MenuItemChangeRepository changeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxWriter outboxWriter;
+    private final Duration retention;
+    
+    // Published to downstream consumers with every logged change, in the same transaction
+    private record MenuChangedEvent(Long branchId, Integer menuVersion, String changeType, List<Long> menuItemIds) {}
+    
+    public MenuChangeLogService(MenuItemChangeRepository changeRepository,
+                                JdbcTemplate jdbcTemplate,
+                                OutboxWriter outboxWriter,
+                                @Value("${menu.change-log.retention:P7D}") Duration retention) {
+        this.changeRepository = changeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.outboxWriter = outboxWriter;
+        this.retention = retention;
+    }
+    
+    /**
+     * Appends a change produced by the given menu version; joins the caller's transaction.
+     */
+    @Transactional
+    public void record(Long branchId, Long menuItemId, Integer menuVersion, String changeType) {
+        MenuItemChange change = new MenuItemChange();
+        change.setBranchId(branchId);
+        change.setMenuItemId(menuItemId);
+        change.setMenuVersion(menuVersion);
+        change.setChangeType(changeType);
+        changeRepository.save(change);
+        outboxWriter.append(OutboxWriter.MENU_TOPIC, branchId, OutboxWriter.MENU_CHANGED,
+            new MenuChangedEvent(branchId, menuVersion, changeType, List.of(menuItemId)));
+    }
+    
+    /**
+     * Appends one change per item for a bulk write, as a single JDBC batch in the caller's transaction.
+     */
+    @Transactional
+    public void recordAll(Long branchId, List<Long> menuItemIds, Integer menuVersion, String changeType) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_CHANGE_SQL, menuItemIds, menuItemIds.size(), (ps, menuItemId) -> {
+            ps.setLong(1, branchId);
+            ps.setLong(2, menuItemId);
+            ps.setInt(3, menuVersion);
+            ps.setString(4, changeType);
+            ps.setTimestamp(5, now);
+        });
+        outboxWriter.append(OutboxWriter.MENU_TOPIC, branchId, OutboxWriter.MENU_CHANGED,
+            new MenuChangedEvent(branchId, menuVersion, changeType, menuItemIds));
+    }
+    
+    /**
+     * Whether the log still holds every change after {@code fromVersion}. Compaction removes the
+     * oldest entries first and every version bump logs at least one change, so the log is complete
+     * exactly when its oldest retained version is no later than {@code fromVersion + 1}.
+     */
+    @Transactional(readOnly = true)
+    public boolean coversVersion(Long branchId, Integer fromVersion) {
+        Integer oldest = changeRepository.findOldestRetainedVersion(branchId);
+        return oldest != null && oldest <= fromVersion + 1;
+    }
+    
+    @Transactional(readOnly = true)
+    public List<MenuItemChange> findChanges(Long branchId, Integer fromVersion, Integer toVersion) {
+        return changeRepository.findChangesBetween(branchId, fromVersion, toVersion);
+    }
+    
+    @Scheduled(cron = "${menu.change-log.compaction-cron:0 30 3 * * *}")
+    @Transactional
+    public void compact() {
+        int deleted = changeRepository.deleteChangedBefore(LocalDateTime.now().minus(retention));
+        log.info("Compacted menu change log: {} entries older than {} removed", deleted, retention);
+    }
+}
@@ -0,0 +1,149 @@
+package com.teadelivery.ordercatalog.menu.service;
+
+import com.teadelivery.ordercatalog.common.cache.AfterCommit;
+import com.teadelivery.ordercatalog.common.cache.CacheInvalidationBus;
+import com.teadelivery.ordercatalog.menu.model.MenuItemChange;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Optional publish coalescing for single-item menu edits. Every edit still bumps the menu version and
+ * logs its change in its own transaction; when enabled, only the cache side is held back per branch
+ * and published once the branch has been quiet for {@code window} (or at most {@code max-delay} after
+ * the first edit): one version publish and one cache invalidation for the whole burst. Until then
+ * readers keep the last published version. A burst already covered by a newer version published
+ * elsewhere (a batch patch, an import, a feed batch or another node's flush) is dropped.
+ *
+ * <p>Pending publishes live in memory on the node that took the edit and are flushed on shutdown.
+ * The database is already up to date, so a node that dies abruptly only delays the cache until the
+ * branch's next edit or the published version expiring; a cache miss meanwhile renders the current
+ * rows under their own version.
+ */
+@Service
+@Slf4j
+public class MenuEditCoalescer {
+    
+    private final MenuCacheService cacheService;
+    private final boolean enabled;
+    private final Duration window;
+    private final Duration maxDelay;
+    
+    private final Map<Long, PendingPublish> pending = new ConcurrentHashMap<>();
+    
+    /**
+     * Newest committed version not yet published, plus burst timing.
+     */
+    private static class PendingPublish {
+        private final Instant firstEditAt = Instant.now();
+        private Instant lastEditAt = firstEditAt;
+        private Integer menuVersion;
+        private boolean popularItemsChanged;
+        
+        PendingPublish record(Integer version, String changeType) {
+            if (menuVersion == null || version > menuVersion) {
+                menuVersion = version;
+            }
+            popularItemsChanged |= !MenuItemChange.CREATED.equals(changeType);
+            lastEditAt = Instant.now();
+            return this;
+        }
+        
+        boolean isDue(Instant now, Duration window, Duration maxDelay) {
+            return !lastEditAt.plus(window).isAfter(now) || !firstEditAt.plus(maxDelay).isAfter(now);
+        }
+    }
+    
+    public MenuEditCoalescer(MenuCacheService cacheService,
+                             CacheInvalidationBus invalidationBus,
+                             @Value("${menu.coalescing.enabled:false}") boolean enabled,
+                             @Value("${menu.coalescing.window:PT5S}") Duration window,
+                             @Value("${menu.coalescing.max-delay:PT30S}") Duration maxDelay) {
+        this.cacheService = cacheService;
+        this.enabled = enabled;
+        this.window = window;
+        this.maxDelay = maxDelay;
+        invalidationBus.subscribe(MenuCacheService.INVALIDATION_REGION, this::dropSuperseded);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * Queues the publish of a bumped menu version for the next coalesced flush once the caller's
+     * transaction commits.
+     */
+    public void publishAfterCommit(Long branchId, Integer menuVersion, String changeType) {
+        AfterCommit.run(() -> pending.compute(branchId,
+            (id, publish) -> (publish == null ? new PendingPublish() : publish).record(menuVersion, changeType)));
+    }
+    
+    @Scheduled(fixedDelayString = "${menu.coalescing.flush-interval:PT1S}")
+    public void flushDue() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        for (Long branchId : List.copyOf(pending.keySet())) {
+            flush(branchId, publish -> publish.isDue(now, window, maxDelay), true);
+        }
+    }
+    
+    @PreDestroy
+    public void flushAll() {
+        for (Long branchId : List.copyOf(pending.keySet())) {
+            flush(branchId, publish -> true, true);
+        }
+    }
+    
+    /**
+     * Every menu publish ends in an invalidation on all nodes; pending versions it already covers need no flush.
+     */
+    private void dropSuperseded(Long branchId) {
+        if (!pending.containsKey(branchId)) {
+            return;
+        }
+        Integer published = cacheService.getPublishedMenuVersion(branchId);
+        if (published == null) {
+            return;
+        }
+        flush(branchId, publish -> publish.menuVersion <= published, false);
+    }
+    
+    private void flush(Long branchId, Predicate<PendingPublish> due, boolean publishVersion) {
+        // Detach atomically so edits arriving meanwhile start a new burst
+        List<PendingPublish> taken = new ArrayList<>(1);
+        pending.computeIfPresent(branchId, (id, publish) -> {
+            if (!due.test(publish)) {
+                return publish;
+            }
+            taken.add(publish);
+            return null;
+        });
+        if (taken.isEmpty()) {
+            return;
+        }
+        
+        PendingPublish publish = taken.get(0);
+        if (publishVersion) {
+            cacheService.publishMenuVersionAfterCommit(branchId, publish.menuVersion);
+        }
+        // The newer publisher may have been an insert-only import that left popular items alone
+        if (publish.popularItemsChanged) {
+            cacheService.evictPopularItemsAfterCommit(branchId);
+        }
+        log.debug("{} coalesced menu v{} for branch: {}",
+            publishVersion ? "Published" : "Dropped superseded", publish.menuVersion, branchId);
+    }
+}
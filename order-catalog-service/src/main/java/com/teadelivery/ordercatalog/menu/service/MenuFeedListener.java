@@ -0,0 +1,193 @@
+package com.teadelivery.ordercatalog.menu.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teadelivery.ordercatalog.menu.dto.MenuFeedMessage;
+import com.teadelivery.ordercatalog.menu.model.MenuItemChange;
+import com.teadelivery.ordercatalog.menu.repository.MenuItemRepository;
+import com.teadelivery.ordercatalog.vendor.repository.VendorBranchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ingests POS and aggregator price/stock feeds from Kafka in batches.
+ * <p>
+ * Each poll is grouped by branch and repeated messages for an item are merged, so a branch costs one
+ * set-based UPDATE, one version bump and one cache invalidation per batch however many messages it sent.
+ * Branches are applied in separate transactions in the order they first appear; if one fails, the error
+ * handler retries from that branch's first record (branches already applied are idempotent on replay)
+ * and eventually dead-letters it. Malformed messages and unknown items go straight to the dead-letter
+ * topic. Backpressure is the consumer's own: the next poll only happens once the batch is applied, and
+ * {@link com.teadelivery.ordercatalog.config.KafkaConsumerConfig} bounds how much of each poll one
+ * partition can take.
+ */
+@Service
+@Slf4j
+public class MenuFeedListener {
+    
+    // Upper bound of DECIMAL(10,2)
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+    
+    private final MenuItemRepository menuItemRepository;
+    private final VendorBranchRepository branchRepository;
+    private final MenuChangeLogService changeLogService;
+    private final MenuCacheService cacheService;
+    private final TransactionTemplate transactionTemplate;
+    private final DeadLetterPublishingRecoverer deadLetterRecoverer;
+    private final ObjectMapper objectMapper;
+    private final Counter applied;
+    private final Counter unchanged;
+    private final Counter deadLettered;
+    
+    /**
+     * Merged changes of one branch in this batch, keyed by item, plus the records they came from.
+     */
+    private static class BranchChanges {
+        private final Map<Long, MenuFeedMessage> byItem = new LinkedHashMap<>();
+        private final Map<Long, List<ConsumerRecord<String, String>>> recordsByItem = new LinkedHashMap<>();
+        private final int firstIndex;
+        
+        BranchChanges(int firstIndex) {
+            this.firstIndex = firstIndex;
+        }
+        
+        void add(MenuFeedMessage message, ConsumerRecord<String, String> record) {
+            // Later messages win field by field; a price-only message keeps an earlier stock change
+            byItem.merge(message.getMenuItemId(), message, (earlier, later) -> new MenuFeedMessage(
+                later.getBranchId(),
+                later.getMenuItemId(),
+                later.getPrice() != null ? later.getPrice() : earlier.getPrice(),
+                later.getIsAvailable() != null ? later.getIsAvailable() : earlier.getIsAvailable()));
+            recordsByItem.computeIfAbsent(message.getMenuItemId(), id -> new ArrayList<>()).add(record);
+        }
+    }
+    
+    public MenuFeedListener(MenuItemRepository menuItemRepository,
+                            VendorBranchRepository branchRepository,
+                            MenuChangeLogService changeLogService,
+                            MenuCacheService cacheService,
+                            TransactionTemplate transactionTemplate,
+                            DeadLetterPublishingRecoverer menuFeedDeadLetterRecoverer,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry) {
+        this.menuItemRepository = menuItemRepository;
+        this.branchRepository = branchRepository;
+        this.changeLogService = changeLogService;
+        this.cacheService = cacheService;
+        this.transactionTemplate = transactionTemplate;
+        this.deadLetterRecoverer = menuFeedDeadLetterRecoverer;
+        this.objectMapper = objectMapper;
+        this.applied = feedCounter(meterRegistry, "applied");
+        this.unchanged = feedCounter(meterRegistry, "unchanged");
+        this.deadLettered = feedCounter(meterRegistry, "dead_lettered");
+    }
+    
+    @KafkaListener(
+        id = "menuFeed",
+        topics = "${menu.feed.topic:pos.menu-changes}",
+        containerFactory = "menuFeedContainerFactory",
+        autoStartup = "${menu.feed.enabled:true}"
+    )
+    public void onMessages(List<ConsumerRecord<String, String>> records) {
+        Map<Long, BranchChanges> byBranch = new LinkedHashMap<>();
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, String> record = records.get(i);
+            MenuFeedMessage message;
+            try {
+                message = parse(record.value());
+            } catch (IllegalArgumentException e) {
+                deadLetter(record, e);
+                continue;
+            }
+            int index = i;
+            byBranch.computeIfAbsent(message.getBranchId(), id -> new BranchChanges(index)).add(message, record);
+        }
+        
+        byBranch.forEach((branchId, changes) -> {
+            try {
+                applyBranch(branchId, changes);
+            } catch (RuntimeException e) {
+                log.warn("Failed to apply menu feed for branch {}: {}", branchId, e.getMessage());
+                throw new BatchListenerFailedException("Menu feed failed for branch " + branchId, e, changes.firstIndex);
+            }
+        });
+        log.debug("Applied menu feed batch of {} records for {} branches", records.size(), byBranch.size());
+    }
+    
+    private void applyBranch(Long branchId, BranchChanges changes) {
+        List<Long> changedIds = transactionTemplate.execute(status -> {
+            List<Long> updatedIds = menuItemRepository.applyFeedChanges(branchId, changes.byItem.values());
+            if (!updatedIds.isEmpty()) {
+                // One version for everything this branch sent in the batch
+                Integer menuVersion = branchRepository.incrementMenuVersion(branchId);
+                changeLogService.recordAll(branchId, updatedIds, menuVersion, MenuItemChange.UPDATED);
+                cacheService.publishMenuVersionAfterCommit(branchId, menuVersion);
+                cacheService.evictPopularItemsAfterCommit(branchId);
+            }
+            return updatedIds;
+        });
+        applied.increment(changedIds.size());
+        
+        if (changedIds.size() < changes.byItem.size()) {
+            // Items that did not change either already held the values or are not on this branch's menu
+            Set<Long> liveIds = new HashSet<>(menuItemRepository.findLiveMenuItemIds(branchId, changes.byItem.keySet()));
+            changes.recordsByItem.forEach((menuItemId, itemRecords) -> {
+                if (!liveIds.contains(menuItemId)) {
+                    IllegalArgumentException unknown = new IllegalArgumentException(
+                        "Menu item " + menuItemId + " not found on branch " + branchId);
+                    itemRecords.forEach(record -> deadLetter(record, unknown));
+                }
+            });
+            unchanged.increment(liveIds.size() - changedIds.size());
+        }
+    }
+    
+    private MenuFeedMessage parse(String value) {
+        MenuFeedMessage message;
+        try {
+            message = objectMapper.readValue(value, MenuFeedMessage.class);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed menu feed message: " + e.getMessage(), e);
+        }
+        if (message == null || message.getBranchId() == null || message.getMenuItemId() == null) {
+            throw new IllegalArgumentException("branchId and menuItemId are required");
+        }
+        if (message.getPrice() == null && message.getIsAvailable() == null) {
+            throw new IllegalArgumentException("No price or isAvailable to apply");
+        }
+        BigDecimal price = message.getPrice();
+        if (price != null && (price.signum() < 0 || price.scale() > 2 || price.compareTo(MAX_PRICE) > 0)) {
+            throw new IllegalArgumentException("price must be between 0 and " + MAX_PRICE + " with at most 2 decimals");
+        }
+        return message;
+    }
+    
+    private void deadLetter(ConsumerRecord<String, String> record, Exception cause) {
+        log.warn("Dead-lettering menu feed record {}-{}@{}: {}",
+            record.topic(), record.partition(), record.offset(), cause.getMessage());
+        deadLetterRecoverer.accept(record, cause);
+        deadLettered.increment();
+    }
+    
+    private static Counter feedCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("menu.feed.changes")
+            .description("Menu feed item changes by outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
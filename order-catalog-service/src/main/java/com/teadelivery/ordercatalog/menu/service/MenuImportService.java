@@ -0,0 +1,340 @@
+package com.teadelivery.ordercatalog.menu.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teadelivery.ordercatalog.common.exception.BranchNotFoundException;
+import com.teadelivery.ordercatalog.common.exception.UnauthorizedException;
+import com.teadelivery.ordercatalog.common.persistence.PooledIds;
+import com.teadelivery.ordercatalog.menu.dto.MenuImportResponse;
+import com.teadelivery.ordercatalog.menu.dto.MenuItemCreateRequest;
+import com.teadelivery.ordercatalog.menu.model.MenuItemChange;
+import com.teadelivery.ordercatalog.vendor.model.VendorBranch;
+import com.teadelivery.ordercatalog.vendor.repository.VendorBranchRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Streaming bulk menu import. Rows are parsed and validated one at a time, valid rows are written
+ * in JDBC batches, and invalid rows are reported individually without failing the import. The whole
+ * import is one menu version: the branch version is bumped and caches invalidated once, after commit.
+ */
+@Service
+@Slf4j
+public class MenuImportService {
+    
+    private static final String NEXT_MENU_ITEM_IDS_SQL =
+        "SELECT nextval('menu_items_menu_item_id_seq') FROM generate_series(1, ?)";
+    private static final String INSERT_MENU_ITEM_SQL =
+        "INSERT INTO menu_items (menu_item_id, branch_id, name, description, price, category, images, " +
+        "is_available, preparation_time_minutes, metadata, tags, is_deleted, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, '{}'::jsonb, true, ?, ?::jsonb, ?, false, ?, ?)";
+    
+    private final VendorBranchRepository branchRepository;
+    private final MenuCacheService cacheService;
+    private final MenuChangeLogService changeLogService;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int batchSize;
+    private final int maxRows;
+    
+    public enum Format {
+        JSON_LINES, CSV;
+        
+        public static Format fromContentType(String contentType) {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return mediaType.isCompatibleWith(MediaType.parseMediaType("text/csv")) ? CSV : JSON_LINES;
+        }
+    }
+    
+    public MenuImportService(VendorBranchRepository branchRepository,
+                             MenuCacheService cacheService,
+                             MenuChangeLogService changeLogService,
+                             JdbcTemplate jdbcTemplate,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             @Value("${menu.import.batch-size:500}") int batchSize,
+                             @Value("${menu.import.max-rows:10000}") int maxRows) {
+        this.branchRepository = branchRepository;
+        this.cacheService = cacheService;
+        this.changeLogService = changeLogService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.maxRows = maxRows;
+    }
+    
+    @Transactional
+    public MenuImportResponse importMenuItems(Long branchId, InputStream body, Format format, UUID requestingUserId) {
+        log.info("Importing menu items for branch: {} as {}", branchId, format);
+        
+        VendorBranch branch = branchRepository.findById(branchId)
+            .orElseThrow(() -> new BranchNotFoundException("Branch not found"));
+        
+        if (!branch.getVendor().getUserId().equals(requestingUserId)) {
+            throw new UnauthorizedException("Not authorized to modify this branch's menu");
+        }
+        
+        ImportRun run = new ImportRun(branchId);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            if (format == Format.CSV) {
+                readCsv(reader, run);
+            } else {
+                readJsonLines(reader, run);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read menu import", e);
+        }
+        run.flush();
+        
+        // One version for the whole import, taken last so the branch row is locked only briefly
+        Integer menuVersion = branch.getMenuVersion();
+        if (!run.importedIds.isEmpty()) {
+            menuVersion = branchRepository.incrementMenuVersion(branchId);
+            changeLogService.recordAll(branchId, run.importedIds, menuVersion, MenuItemChange.CREATED);
+            cacheService.publishMenuVersionAfterCommit(branchId, menuVersion);
+        }
+        
+        log.info("Menu import for branch {}: {} imported, {} failed", branchId, run.importedIds.size(), run.errors.size());
+        return MenuImportResponse.builder()
+            .branchId(branchId)
+            .menuVersion(menuVersion)
+            .totalRows(run.rows)
+            .importedCount(run.importedIds.size())
+            .failedCount(run.errors.size())
+            .errors(run.errors)
+            .build();
+    }
+    
+    private void readJsonLines(BufferedReader reader, ImportRun run) throws IOException {
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            MenuItemCreateRequest request;
+            try {
+                request = objectMapper.readValue(line, MenuItemCreateRequest.class);
+            } catch (JsonProcessingException e) {
+                if (!run.reject(lineNumber, "Malformed JSON: " + e.getOriginalMessage())) {
+                    return;
+                }
+                continue;
+            }
+            if (!run.accept(lineNumber, request)) {
+                return;
+            }
+        }
+    }
+    
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT).replace("_", ""), i);
+        }
+        if (!columns.keySet().containsAll(List.of("name", "price", "category"))) {
+            throw new IllegalArgumentException("CSV header must include name, price and category columns");
+        }
+        
+        List<String> fields;
+        int rowNumber = 0;
+        while ((fields = csv.next()) != null) {
+            rowNumber++;
+            if (fields.isEmpty()) {
+                continue;
+            }
+            MenuItemCreateRequest request;
+            try {
+                request = toCreateRequest(columns, fields);
+            } catch (IllegalArgumentException e) {
+                if (!run.reject(rowNumber, e.getMessage())) {
+                    return;
+                }
+                continue;
+            }
+            if (!run.accept(rowNumber, request)) {
+                return;
+            }
+        }
+    }
+    
+    private MenuItemCreateRequest toCreateRequest(Map<String, Integer> columns, List<String> fields) {
+        MenuItemCreateRequest request = new MenuItemCreateRequest();
+        request.setName(column(columns, fields, "name"));
+        request.setDescription(column(columns, fields, "description"));
+        request.setCategory(column(columns, fields, "category"));
+        
+        String price = column(columns, fields, "price");
+        String preparationTime = column(columns, fields, "preparationtimeminutes");
+        String tags = column(columns, fields, "tags");
+        try {
+            request.setPrice(price == null ? null : new BigDecimal(price));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("price: not a number");
+        }
+        try {
+            request.setPreparationTimeMinutes(preparationTime == null ? null : Integer.valueOf(preparationTime));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("preparationTimeMinutes: not a whole number");
+        }
+        // Tags are pipe separated within the column
+        request.setTags(tags == null ? null : tags.split("\\s*\\|\\s*"));
+        return request;
+    }
+    
+    private String column(Map<String, Integer> columns, List<String> fields, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+    
+    /**
+     * Mutable state of one import: buffers valid rows until a batch is full and collects row errors.
+     */
+    private class ImportRun {
+        
+        private final Long branchId;
+        private final List<MenuItemCreateRequest> pending = new ArrayList<>();
+        private final List<Long> importedIds = new ArrayList<>();
+        private final List<MenuImportResponse.RowError> errors = new ArrayList<>();
+        private int rows;
+        
+        ImportRun(Long branchId) {
+            this.branchId = branchId;
+        }
+        
+        /**
+         * Validates and buffers a parsed row. Returns false once the row limit is reached.
+         */
+        boolean accept(int rowNumber, MenuItemCreateRequest request) {
+            if (!countRow(rowNumber)) {
+                return false;
+            }
+            
+            Set<ConstraintViolation<MenuItemCreateRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                errors.add(new MenuImportResponse.RowError(rowNumber, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "))));
+                return true;
+            }
+            
+            pending.add(request);
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+            return true;
+        }
+        
+        boolean reject(int rowNumber, String message) {
+            if (!countRow(rowNumber)) {
+                return false;
+            }
+            errors.add(new MenuImportResponse.RowError(rowNumber, message));
+            return true;
+        }
+        
+        private boolean countRow(int rowNumber) {
+            if (rows == maxRows) {
+                errors.add(new MenuImportResponse.RowError(rowNumber,
+                    "Import is limited to " + maxRows + " rows; remaining rows were not read"));
+                return false;
+            }
+            rows++;
+            return true;
+        }
+        
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            
+            // One nextval per block of pooled ids instead of one per row
+            List<Long> blockEnds = jdbcTemplate.queryForList(NEXT_MENU_ITEM_IDS_SQL, Long.class, PooledIds.blocksFor(pending.size()));
+            List<Long> ids = PooledIds.expand(blockEnds, pending.size());
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            
+            jdbcTemplate.batchUpdate(INSERT_MENU_ITEM_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    MenuItemCreateRequest request = pending.get(i);
+                    ps.setLong(1, ids.get(i));
+                    ps.setLong(2, branchId);
+                    ps.setString(3, request.getName());
+                    ps.setString(4, request.getDescription());
+                    ps.setBigDecimal(5, request.getPrice());
+                    ps.setString(6, request.getCategory());
+                    ps.setObject(7, request.getPreparationTimeMinutes(), Types.INTEGER);
+                    ps.setString(8, toJson(request.getMetadata()));
+                    if (request.getTags() == null) {
+                        ps.setNull(9, Types.ARRAY);
+                    } else {
+                        ps.setArray(9, ps.getConnection().createArrayOf("text", request.getTags()));
+                    }
+                    ps.setTimestamp(10, now);
+                    ps.setTimestamp(11, now);
+                }
+                
+                @Override
+                public int getBatchSize() {
+                    return pending.size();
+                }
+            });
+            
+            importedIds.addAll(ids);
+            pending.clear();
+        }
+    }
+    
+    private String toJson(Map<String, Object> value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,27 +1,45 @@
 package com.teadelivery.ordercatalog.menu.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teadelivery.ordercatalog.common.cache.RebuildLock;
+import com.teadelivery.ordercatalog.common.cache.SingleFlight;
 import com.teadelivery.ordercatalog.common.exception.BranchNotFoundException;
 import com.teadelivery.ordercatalog.common.exception.MenuItemNotFoundException;
 import com.teadelivery.ordercatalog.common.exception.UnauthorizedException;
+import com.teadelivery.ordercatalog.common.pagination.CursorCodec;
+import com.teadelivery.ordercatalog.common.pagination.SliceResponse;
+import com.teadelivery.ordercatalog.menu.dto.BranchMenuResponse;
+import com.teadelivery.ordercatalog.menu.dto.MenuDeltaResponse;
+import com.teadelivery.ordercatalog.menu.dto.MenuItemBatchPatchRequest;
+import com.teadelivery.ordercatalog.menu.dto.MenuItemBatchPatchResponse;
 import com.teadelivery.ordercatalog.menu.dto.MenuItemCreateRequest;
 import com.teadelivery.ordercatalog.menu.dto.MenuItemResponse;
 import com.teadelivery.ordercatalog.menu.dto.MenuItemUpdateRequest;
+import com.teadelivery.ordercatalog.menu.dto.MenuPayload;
 import com.teadelivery.ordercatalog.menu.mapper.MenuMapper;
 import com.teadelivery.ordercatalog.menu.model.MenuItem;
+import com.teadelivery.ordercatalog.menu.model.MenuItemChange;
 import com.teadelivery.ordercatalog.menu.repository.MenuItemRepository;
 import com.teadelivery.ordercatalog.vendor.model.VendorBranch;
 import com.teadelivery.ordercatalog.vendor.repository.VendorBranchRepository;
+import com.teadelivery.ordercatalog.vendor.repository.VendorBranchRepository.BranchMenuVersion;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 @Slf4j
@@ -31,6 +49,18 @@ public class MenuService {
     private final MenuItemRepository menuItemRepository;
     private final VendorBranchRepository branchRepository;
     private final MenuCacheService cacheService;
+    private final MenuChangeLogService changeLogService;
+    private final MenuEditCoalescer editCoalescer;
+    private final RebuildLock rebuildLock;
+    private final ObjectMapper objectMapper;
+    
+    // In-JVM single-flight per branch menu version; RebuildLock extends it across nodes
+    private final SingleFlight<MenuVersionKey, List<MenuItemResponse>> menuRebuilds = new SingleFlight<>();
+    private final SingleFlight<MenuVersionKey, MenuPayload> payloadRebuilds = new SingleFlight<>();
+    
+    private record MenuVersionKey(Long branchId, Integer version) {}
+    
+    private static final int MAX_BATCH_BRANCHES = 50;
     
     @Transactional
     public MenuItemResponse createMenuItem(Long branchId, MenuItemCreateRequest request, UUID requestingUserId) {
@@ -58,9 +88,7 @@ public class MenuService {
         
         MenuItem savedItem = menuItemRepository.save(menuItem);
         
-        // Increment branch menu version
-        branch.setMenuVersion(branch.getMenuVersion() + 1);
-        branchRepository.save(branch);
+        publishMenuChange(branchId, savedItem.getMenuItemId(), MenuItemChange.CREATED);
         
         log.info("Menu item created: {} for branch: {}", savedItem.getMenuItemId(), branchId);
         return MenuMapper.toResponse(savedItem);
@@ -80,19 +108,389 @@ public class MenuService {
     public List<MenuItemResponse> getBranchMenu(Long branchId, String category, Pageable pageable) {
         log.info("Fetching menu for branch: {}", branchId);
         
+        // The published version, so paged reads agree with the ETag while coalesced edits are pending
+        List<MenuItemResponse> menu = getCurrentMenu(branchId);
+        
+        List<MenuItemResponse> filtered = category == null ? menu : menu.stream()
+            .filter(item -> category.equals(item.getCategory()))
+            .toList();
+        
+        return paginate(filtered, pageable);
+    }
+    
+    /**
+     * Keyset slice of the branch menu ordered by menu item id. Seeks past the id in {@code cursor}
+     * on the cached, id-ordered menu instead of skipping an offset.
+     */
+    @Transactional(readOnly = true)
+    public SliceResponse<MenuItemResponse> getBranchMenuSlice(Long branchId, String category, String cursor, int size) {
+        log.info("Fetching menu slice for branch: {}", branchId);
+        
+        Long afterId = cursor == null || cursor.isEmpty() ? null : parseMenuCursor(cursor);
+        List<MenuItemResponse> menu = getCurrentMenu(branchId);
+        
+        List<MenuItemResponse> items = new ArrayList<>();
+        boolean hasNext = false;
+        for (int i = firstIndexAfter(menu, afterId); i < menu.size(); i++) {
+            MenuItemResponse item = menu.get(i);
+            if (category != null && !category.equals(item.getCategory())) {
+                continue;
+            }
+            if (items.size() == size) {
+                hasNext = true;
+                break;
+            }
+            items.add(item);
+        }
+        
+        return SliceResponse.<MenuItemResponse>builder()
+            .items(items)
+            .size(size)
+            .hasNext(hasNext)
+            .nextCursor(hasNext ? CursorCodec.encode(items.get(items.size() - 1).getMenuItemId()) : null)
+            .build();
+    }
+    
+    /**
+     * Menus of many branches in one call, for listing and search snippets. Versions and menus are read
+     * from the cache in one round trip each; only the misses go to the database, one query per kind.
+     */
+    public List<BranchMenuResponse> getBranchMenus(List<Long> branchIds, int itemsPerBranch) {
+        List<Long> ids = branchIds.stream().distinct().toList();
+        if (ids.isEmpty() || ids.size() > MAX_BATCH_BRANCHES) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_BATCH_BRANCHES + " branch ids are allowed");
+        }
+        if (itemsPerBranch < 0) {
+            throw new IllegalArgumentException("Limit must not be negative");
+        }
+        log.info("Fetching menus for {} branches", ids.size());
+        
+        Map<Long, Integer> versions = new HashMap<>(cacheService.getMenuVersions(ids));
+        List<Long> unresolved = ids.stream().filter(id -> !versions.containsKey(id)).toList();
+        if (!unresolved.isEmpty()) {
+            Map<Long, Integer> loadedVersions = branchRepository.findMenuVersionsByBranchIdIn(unresolved).stream()
+                .collect(Collectors.toMap(BranchMenuVersion::getBranchId, BranchMenuVersion::getMenuVersion));
+            cacheService.cacheMenuVersions(loadedVersions);
+            versions.putAll(loadedVersions);
+        }
+        
+        Map<Long, List<MenuItemResponse>> menus = new HashMap<>(cacheService.getBranchMenus(versions));
+        Map<Long, Integer> missedVersions = new HashMap<>(versions);
+        missedVersions.keySet().removeAll(menus.keySet());
+        if (!missedVersions.isEmpty()) {
+            Map<Long, List<MenuItemResponse>> loadedMenus = new HashMap<>();
+            missedVersions.keySet().forEach(branchId -> loadedMenus.put(branchId, new ArrayList<>()));
+            for (MenuItem item : menuItemRepository.findMenusByBranchIds(missedVersions.keySet())) {
+                MenuItemResponse response = MenuMapper.toResponse(item);
+                loadedMenus.get(response.getBranchId()).add(response);
+            }
+            cacheService.cacheBranchMenus(missedVersions, loadedMenus);
+            menus.putAll(loadedMenus);
+        }
+        
+        return ids.stream()
+            .map(branchId -> {
+                Integer version = versions.get(branchId);
+                if (version == null) {
+                    return BranchMenuResponse.builder().branchId(branchId).found(false).build();
+                }
+                List<MenuItemResponse> menu = menus.get(branchId);
+                return BranchMenuResponse.builder()
+                    .branchId(branchId)
+                    .found(true)
+                    .menuVersion(version)
+                    .totalItems(menu.size())
+                    .items(menu.subList(0, Math.min(itemsPerBranch, menu.size())))
+                    .build();
+            })
+            .toList();
+    }
+    
+    /**
+     * Current full menu of a branch ordered by menu item id, for cart validation and price lookups.
+     * Served from the versioned menu cache; the branch row and menu items are only read on a miss.
+     */
+    public List<MenuItemResponse> getCurrentMenu(Long branchId) {
+        Integer version = getMenuVersion(branchId);
+        List<MenuItemResponse> cached = cacheService.getBranchMenu(branchId, version);
+        if (cached != null) {
+            return cached;
+        }
+        
+        VendorBranch branch = branchRepository.findById(branchId)
+            .orElseThrow(() -> new BranchNotFoundException("Branch not found"));
+        return loadBranchMenu(branch);
+    }
+    
+    /**
+     * Current menu version, answered from cache when possible so ETag checks never touch the menu rows.
+     */
+    public Integer getMenuVersion(Long branchId) {
+        Integer cached = cacheService.getMenuVersion(branchId);
+        if (cached != null) {
+            return cached;
+        }
+        
+        Integer version = branchRepository.findMenuVersionByBranchId(branchId)
+            .orElseThrow(() -> new BranchNotFoundException("Branch not found"));
+        cacheService.cacheMenuVersion(branchId, version);
+        return version;
+    }
+    
+    /**
+     * Pre-rendered payload to serve a whole-menu read from. Normally the current version; while the current
+     * payload is not yet built, the superseded version is served for up to {@code cache.menu.stale-max-age}
+     * and the current one is rebuilt in the background (stale-while-revalidate). The payload carries the
+     * version it was rendered from, which is the one to tag the response with.
+     */
+    public MenuPayload getServedMenuPayload(Long branchId) {
+        Integer currentVersion = getMenuVersion(branchId);
+        MenuPayload current = cacheService.getMenuPayload(branchId, currentVersion);
+        if (current != null) {
+            return current;
+        }
+        
+        Integer staleVersion = cacheService.getStaleMenuVersion(branchId);
+        MenuPayload stale = staleVersion != null && staleVersion < currentVersion
+            ? cacheService.getMenuPayload(branchId, staleVersion)
+            : null;
+        if (stale != null) {
+            payloadRebuilds.runInBackground(new MenuVersionKey(branchId, currentVersion),
+                () -> rebuildMenuPayload(branchId, currentVersion));
+            return stale;
+        }
+        return payloadRebuilds.run(new MenuVersionKey(branchId, currentVersion),
+            () -> rebuildMenuPayload(branchId, currentVersion));
+    }
+    
+    /**
+     * Full branch menu rendered to JSON (plain and gzip) once per menu version.
+     * A cache hit for the requested version is served without any database access; on a miss,
+     * concurrent callers share a single rebuild, which renders the branch's current version.
+     */
+    public MenuPayload getBranchMenuPayload(Long branchId, Integer menuVersion) {
+        MenuPayload cached = cacheService.getMenuPayload(branchId, menuVersion);
+        if (cached != null) {
+            return cached;
+        }
+        
+        return payloadRebuilds.run(new MenuVersionKey(branchId, menuVersion),
+            () -> rebuildMenuPayload(branchId, menuVersion));
+    }
+    
+    /**
+     * Items added, changed and removed since {@code sinceVersion}, derived from the menu change log.
+     * Falls back to a full snapshot (all current items in {@code added}) once the log has been
+     * compacted past the requested version.
+     */
+    @Transactional(readOnly = true)
+    public MenuDeltaResponse getMenuChanges(Long branchId, Integer sinceVersion) {
+        log.info("Fetching menu changes for branch: {} since v{}", branchId, sinceVersion);
+        
         VendorBranch branch = branchRepository.findById(branchId)
             .orElseThrow(() -> new BranchNotFoundException("Branch not found"));
         
-        Page<MenuItem> itemsPage;
-        if (category != null) {
-            itemsPage = menuItemRepository.findByBranchAndCategoryAndIsDeletedFalse(branch, category, pageable);
-        } else {
-            itemsPage = menuItemRepository.findByBranchAndIsDeletedFalse(branch, pageable);
+        Integer currentVersion = branch.getMenuVersion();
+        List<MenuItemResponse> menu = loadBranchMenu(branch);
+        
+        MenuDeltaResponse.MenuDeltaResponseBuilder delta = MenuDeltaResponse.builder()
+            .branchId(branchId)
+            .fromVersion(sinceVersion)
+            .toVersion(currentVersion);
+        
+        if (sinceVersion.equals(currentVersion)) {
+            return delta.fullSnapshot(false).added(List.of()).changed(List.of()).removed(List.of()).build();
+        }
+        if (sinceVersion > currentVersion || !changeLogService.coversVersion(branchId, sinceVersion)) {
+            return delta.fullSnapshot(true).added(menu).changed(List.of()).removed(List.of()).build();
+        }
+        
+        // Collapse the log to one net change per item
+        Map<Long, String> netChanges = new LinkedHashMap<>();
+        for (MenuItemChange change : changeLogService.findChanges(branchId, sinceVersion, currentVersion)) {
+            String previous = netChanges.get(change.getMenuItemId());
+            if (MenuItemChange.CREATED.equals(previous) && !MenuItemChange.DELETED.equals(change.getChangeType())) {
+                continue;
+            }
+            if (MenuItemChange.CREATED.equals(previous)) {
+                // Created and deleted within the window: the client never saw it
+                netChanges.remove(change.getMenuItemId());
+                continue;
+            }
+            netChanges.put(change.getMenuItemId(), change.getChangeType());
         }
         
-        return itemsPage.getContent().stream()
-            .map(MenuMapper::toResponse)
-            .collect(Collectors.toList());
+        Map<Long, MenuItemResponse> currentItems = menu.stream()
+            .collect(Collectors.toMap(MenuItemResponse::getMenuItemId, item -> item));
+        List<MenuItemResponse> added = new ArrayList<>();
+        List<MenuItemResponse> changed = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        netChanges.forEach((menuItemId, changeType) -> {
+            MenuItemResponse item = currentItems.get(menuItemId);
+            if (MenuItemChange.DELETED.equals(changeType) || item == null) {
+                removed.add(menuItemId);
+            } else if (MenuItemChange.CREATED.equals(changeType)) {
+                added.add(item);
+            } else {
+                changed.add(item);
+            }
+        });
+        
+        return delta.fullSnapshot(false).added(added).changed(changed).removed(removed).build();
+    }
+    
+    /**
+     * Publishes a single-item edit as a new menu version with its change log entry. Cache invalidation
+     * follows the commit, or, in coalescing mode, is published together with the rest of the editing burst.
+     */
+    private void publishMenuChange(Long branchId, Long menuItemId, String changeType) {
+        // Increment branch menu version
+        Integer menuVersion = branchRepository.incrementMenuVersion(branchId);
+        changeLogService.record(branchId, menuItemId, menuVersion, changeType);
+        
+        if (editCoalescer.isEnabled()) {
+            editCoalescer.publishAfterCommit(branchId, menuVersion, changeType);
+            return;
+        }
+        
+        // Invalidate cache
+        cacheService.publishMenuVersionAfterCommit(branchId, menuVersion);
+        if (!MenuItemChange.CREATED.equals(changeType)) {
+            cacheService.evictPopularItemsAfterCommit(branchId);
+        }
+    }
+    
+    /**
+     * Read-through lookup of the full (non-deleted) branch menu, keyed by the branch menu version.
+     */
+    private List<MenuItemResponse> loadBranchMenu(VendorBranch branch) {
+        Long branchId = branch.getBranchId();
+        Integer version = branch.getMenuVersion();
+        
+        List<MenuItemResponse> cached = cacheService.getBranchMenu(branchId, version);
+        if (cached != null) {
+            return cached;
+        }
+        
+        return menuRebuilds.run(new MenuVersionKey(branchId, version), () -> rebuildBranchMenu(branch));
+    }
+    
+    private List<MenuItemResponse> rebuildBranchMenu(VendorBranch branch) {
+        Long branchId = branch.getBranchId();
+        Integer version = branch.getMenuVersion();
+        // A flight that finished between our cache miss and joining has already published the menu
+        List<MenuItemResponse> cached = cacheService.getBranchMenu(branchId, version);
+        if (cached != null) {
+            return cached;
+        }
+        
+        String cacheKey = cacheService.branchMenuKey(branchId, version);
+        String lockToken = rebuildLock.tryAcquire(cacheKey);
+        if (lockToken == null) {
+            // Another node is rebuilding this version; use its result unless it takes too long
+            List<MenuItemResponse> rebuilt = rebuildLock.awaitRebuild(() -> cacheService.getBranchMenu(branchId, version));
+            if (rebuilt != null) {
+                return rebuilt;
+            }
+        }
+        try {
+            List<MenuItemResponse> menu = menuItemRepository.findByBranchAndIsDeletedFalseOrderByMenuItemIdAsc(branch).stream()
+                .map(MenuMapper::toResponse)
+                .toList();
+            
+            cacheService.cacheBranchMenu(branchId, version, menu);
+            return menu;
+        } finally {
+            if (lockToken != null) {
+                rebuildLock.release(cacheKey, lockToken);
+            }
+        }
+    }
+    
+    private MenuPayload rebuildMenuPayload(Long branchId, Integer menuVersion) {
+        MenuPayload cached = cacheService.getMenuPayload(branchId, menuVersion);
+        if (cached != null) {
+            return cached;
+        }
+        
+        VendorBranch branch = branchRepository.findById(branchId)
+            .orElseThrow(() -> new BranchNotFoundException("Branch not found"));
+        // The rows are read as of the branch's current version, so lock, render and cache under that one
+        Integer version = branch.getMenuVersion();
+        if (!version.equals(menuVersion)) {
+            cached = cacheService.getMenuPayload(branchId, version);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        
+        String cacheKey = cacheService.menuPayloadKey(branchId, version);
+        String lockToken = rebuildLock.tryAcquire(cacheKey);
+        if (lockToken == null) {
+            MenuPayload rebuilt = rebuildLock.awaitRebuild(() -> cacheService.getMenuPayload(branchId, version));
+            if (rebuilt != null) {
+                return rebuilt;
+            }
+        }
+        try {
+            MenuPayload payload = renderPayload(version, loadBranchMenu(branch));
+            cacheService.cacheMenuPayload(branchId, version, payload);
+            return payload;
+        } finally {
+            if (lockToken != null) {
+                rebuildLock.release(cacheKey, lockToken);
+            }
+        }
+    }
+    
+    private MenuPayload renderPayload(Integer menuVersion, List<MenuItemResponse> menu) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(menu);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(json);
+            }
+            return new MenuPayload(menuVersion, menu.size(), json, compressed.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to render branch menu", e);
+        }
+    }
+    
+    private Long parseMenuCursor(String cursor) {
+        try {
+            return Long.valueOf(CursorCodec.decode(cursor, 1)[0]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+    
+    private int firstIndexAfter(List<MenuItemResponse> menu, Long afterId) {
+        if (afterId == null) {
+            return 0;
+        }
+        int low = 0;
+        int high = menu.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (menu.get(mid).getMenuItemId() <= afterId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    private List<MenuItemResponse> paginate(List<MenuItemResponse> items, Pageable pageable) {
+        if (pageable == null || pageable.isUnpaged()) {
+            return items;
+        }
+        long from = pageable.getOffset();
+        if (from >= items.size()) {
+            return List.of();
+        }
+        int to = (int) Math.min(from + pageable.getPageSize(), items.size());
+        return items.subList((int) from, to);
     }
     
     @Transactional
@@ -133,19 +531,59 @@ public class MenuService {
         
         MenuItem updatedItem = menuItemRepository.save(menuItem);
         
-        // Increment branch menu version
-        VendorBranch branch = menuItem.getBranch();
-        branch.setMenuVersion(branch.getMenuVersion() + 1);
-        branchRepository.save(branch);
-        
-        // Invalidate cache
-        cacheService.evictBranchMenu(branch.getBranchId());
-        cacheService.evictPopularItems(branch.getBranchId());
+        publishMenuChange(menuItem.getBranch().getBranchId(), menuItemId, MenuItemChange.UPDATED);
         
         log.info("Menu item updated: {}", menuItemId);
         return MenuMapper.toResponse(updatedItem);
     }
     
+    /**
+     * Applies one partial update to many items of a branch with a single set-based UPDATE,
+     * producing one menu version and one cache invalidation regardless of how many items change.
+     */
+    @Transactional
+    public MenuItemBatchPatchResponse patchMenuItems(Long branchId, MenuItemBatchPatchRequest request, UUID requestingUserId) {
+        log.info("Batch patching menu items for branch: {}", branchId);
+        
+        if (!request.hasSingleSelector()) {
+            throw new IllegalArgumentException("Select items either by menuItemIds or by category/tag");
+        }
+        if (!request.hasChanges()) {
+            throw new IllegalArgumentException("No fields to update");
+        }
+        if (request.getPrice() != null && request.getPriceAdjustmentPercent() != null) {
+            throw new IllegalArgumentException("Specify either price or priceAdjustmentPercent, not both");
+        }
+        
+        VendorBranch branch = branchRepository.findById(branchId)
+            .orElseThrow(() -> new BranchNotFoundException("Branch not found"));
+        
+        if (!branch.getVendor().getUserId().equals(requestingUserId)) {
+            throw new UnauthorizedException("Not authorized to modify this branch's menu");
+        }
+        
+        List<Long> updatedIds = menuItemRepository.patchItems(branchId, request);
+        
+        Integer menuVersion = branch.getMenuVersion();
+        if (!updatedIds.isEmpty()) {
+            // Increment branch menu version once for the whole batch
+            menuVersion = branchRepository.incrementMenuVersion(branchId);
+            changeLogService.recordAll(branchId, updatedIds, menuVersion, MenuItemChange.UPDATED);
+            
+            // Invalidate cache
+            cacheService.publishMenuVersionAfterCommit(branchId, menuVersion);
+            cacheService.evictPopularItemsAfterCommit(branchId);
+        }
+        
+        log.info("Batch patch updated {} menu items for branch: {}", updatedIds.size(), branchId);
+        return MenuItemBatchPatchResponse.builder()
+            .branchId(branchId)
+            .menuVersion(menuVersion)
+            .updatedCount(updatedIds.size())
+            .updatedItemIds(updatedIds)
+            .build();
+    }
+    
     @Transactional
     public void deleteMenuItem(Long menuItemId, UUID requestingUserId) {
         log.info("Deleting menu item: {}", menuItemId);
@@ -162,14 +600,7 @@ public class MenuService {
         menuItem.setIsAvailable(false);
         menuItemRepository.save(menuItem);
         
-        // Increment branch menu version
-        VendorBranch branch = menuItem.getBranch();
-        branch.setMenuVersion(branch.getMenuVersion() + 1);
-        branchRepository.save(branch);
-        
-        // Invalidate cache
-        cacheService.evictBranchMenu(branch.getBranchId());
-        cacheService.evictPopularItems(branch.getBranchId());
+        publishMenuChange(menuItem.getBranch().getBranchId(), menuItemId, MenuItemChange.DELETED);
         
         log.info("Menu item deleted: {}", menuItemId);
     }
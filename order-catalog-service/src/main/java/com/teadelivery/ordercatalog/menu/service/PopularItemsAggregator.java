@@ -0,0 +1,83 @@
+package com.teadelivery.ordercatalog.menu.service;
+
+import com.teadelivery.ordercatalog.menu.model.AggregationCheckpoint;
+import com.teadelivery.ordercatalog.menu.model.PopularityWindow;
+import com.teadelivery.ordercatalog.menu.repository.AggregationCheckpointRepository;
+import com.teadelivery.ordercatalog.menu.repository.MenuItemSalesRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Folds newly created order items into the bucketed {@code menu_item_sales} rollup, one bounded
+ * time step per transaction. Only rows created since the checkpoint are read, so the cost of a
+ * step depends on recent order volume rather than the size of {@code order_items}.
+ */
+@Service
+@Slf4j
+public class PopularItemsAggregator {
+    
+    static final String CHECKPOINT = "popular-items";
+    
+    private final MenuItemSalesRepository salesRepository;
+    private final AggregationCheckpointRepository checkpointRepository;
+    private final Duration bucket;
+    private final Duration settleDelay;
+    private final Duration maxStep;
+    
+    /**
+     * Outcome of one step: branches that received new sales, and whether the checkpoint has reached
+     * the settled edge (no further step would find anything yet).
+     */
+    public record FoldResult(List<Long> touchedBranchIds, boolean caughtUp) {}
+    
+    public PopularItemsAggregator(MenuItemSalesRepository salesRepository,
+                                  AggregationCheckpointRepository checkpointRepository,
+                                  @Value("${menu.popular-items.bucket:PT5M}") Duration bucket,
+                                  @Value("${menu.popular-items.settle-delay:PT30S}") Duration settleDelay,
+                                  @Value("${menu.popular-items.max-step:PT1H}") Duration maxStep) {
+        this.salesRepository = salesRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.bucket = bucket;
+        this.settleDelay = settleDelay;
+        this.maxStep = maxStep;
+    }
+    
+    public Duration getBucket() {
+        return bucket;
+    }
+    
+    @Transactional
+    public FoldResult foldNextStep() {
+        AggregationCheckpoint checkpoint = checkpointRepository.findByNameForUpdate(CHECKPOINT)
+            .orElseThrow(() -> new IllegalStateException("Missing aggregation checkpoint: " + CHECKPOINT));
+        
+        // Leave a settle delay so rows from transactions still in flight are not skipped
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime settled = now.minus(settleDelay);
+        LocalDateTime from = checkpoint.getCheckpointAt();
+        LocalDateTime to = from.plus(maxStep).isBefore(settled) ? from.plus(maxStep) : settled;
+        if (!to.isAfter(from)) {
+            return new FoldResult(List.of(), true);
+        }
+        
+        List<Long> touched = salesRepository.findBranchesWithOrderItemsBetween(from, to);
+        if (!touched.isEmpty()) {
+            int rows = salesRepository.foldOrderItems(from, to, bucket.toSeconds());
+            log.debug("Folded order items [{}, {}) into {} sales buckets", from, to, rows);
+        }
+        
+        checkpoint.setCheckpointAt(to);
+        checkpoint.setUpdatedAt(now);
+        
+        // Buckets older than the widest window can no longer contribute to a ranking
+        salesRepository.deleteBucketsBefore(now.minus(PopularityWindow.WEEK.getDuration()).minus(bucket));
+        
+        return new FoldResult(touched, !to.isBefore(settled));
+    }
+}
@@ -0,0 +1,132 @@
+package com.teadelivery.ordercatalog.menu.service;
+
+import com.teadelivery.ordercatalog.menu.dto.MenuItemResponse;
+import com.teadelivery.ordercatalog.menu.dto.PopularItemResponse;
+import com.teadelivery.ordercatalog.menu.model.PopularityWindow;
+import com.teadelivery.ordercatalog.menu.repository.MenuItemSalesRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Popular items per branch over sliding windows, ranked by quantity sold then order count.
+ * Rankings are read from the incremental sales rollup and published to the popular-items cache
+ * whenever a branch receives new sales; cache misses are ranked on demand from the same rollup.
+ */
+@Service
+@Slf4j
+public class PopularItemsService {
+    
+    private final PopularItemsAggregator aggregator;
+    private final MenuItemSalesRepository salesRepository;
+    private final MenuService menuService;
+    private final MenuCacheService cacheService;
+    private final int maxRanked;
+    private final int maxStepsPerRefresh;
+    
+    public PopularItemsService(PopularItemsAggregator aggregator,
+                               MenuItemSalesRepository salesRepository,
+                               MenuService menuService,
+                               MenuCacheService cacheService,
+                               @Value("${menu.popular-items.max-ranked:50}") int maxRanked,
+                               @Value("${menu.popular-items.max-steps-per-refresh:24}") int maxStepsPerRefresh) {
+        this.aggregator = aggregator;
+        this.salesRepository = salesRepository;
+        this.menuService = menuService;
+        this.cacheService = cacheService;
+        this.maxRanked = maxRanked;
+        this.maxStepsPerRefresh = maxStepsPerRefresh;
+    }
+    
+    public List<PopularItemResponse> getPopularItems(Long branchId, PopularityWindow window, int limit) {
+        List<PopularItemResponse> ranked = cacheService.getPopularItems(branchId, window);
+        if (ranked == null) {
+            ranked = rank(branchId, window);
+            cacheService.cachePopularItems(branchId, window, ranked);
+        }
+        return ranked.size() <= limit ? ranked : ranked.subList(0, limit);
+    }
+    
+    /**
+     * Catches the rollup up with new order items and republishes rankings for the branches they touched.
+     */
+    @Scheduled(fixedDelayString = "${menu.popular-items.refresh-interval:PT1M}")
+    public void refresh() {
+        Set<Long> touched = new LinkedHashSet<>();
+        for (int step = 0; step < maxStepsPerRefresh; step++) {
+            PopularItemsAggregator.FoldResult result = aggregator.foldNextStep();
+            touched.addAll(result.touchedBranchIds());
+            if (result.caughtUp()) {
+                break;
+            }
+        }
+        
+        for (Long branchId : touched) {
+            try {
+                publish(branchId);
+            } catch (Exception e) {
+                log.warn("Failed to publish popular items for branch {}: {}", branchId, e.getMessage());
+            }
+        }
+        if (!touched.isEmpty()) {
+            log.info("Refreshed popular items for {} branches", touched.size());
+        }
+    }
+    
+    private void publish(Long branchId) {
+        for (PopularityWindow window : PopularityWindow.values()) {
+            cacheService.cachePopularItems(branchId, window, rank(branchId, window));
+        }
+    }
+    
+    private List<PopularItemResponse> rank(Long branchId, PopularityWindow window) {
+        // Full menu from the version-keyed cache; also rejects unknown branches
+        Map<Long, MenuItemResponse> menu = menuService.getBranchMenu(branchId, null, Pageable.unpaged()).stream()
+            .collect(Collectors.toMap(MenuItemResponse::getMenuItemId, Function.identity()));
+        
+        List<PopularItemResponse> ranked = new ArrayList<>();
+        for (MenuItemSalesRepository.ItemSalesTotal total
+                : salesRepository.findItemTotalsSince(branchId, windowStart(window))) {
+            MenuItemResponse item = menu.get(total.getMenuItemId());
+            if (item == null) {
+                continue; // deleted since it was sold
+            }
+            ranked.add(PopularItemResponse.builder()
+                .rank(ranked.size() + 1)
+                .menuItemId(item.getMenuItemId())
+                .name(item.getName())
+                .category(item.getCategory())
+                .price(item.getPrice())
+                .isAvailable(item.getIsAvailable())
+                .images(item.getImages())
+                .quantitySold(total.getQuantity())
+                .orderCount(total.getOrderCount())
+                .build());
+            if (ranked.size() == maxRanked) {
+                break;
+            }
+        }
+        return ranked;
+    }
+    
+    private LocalDateTime windowStart(PopularityWindow window) {
+        // Aligned to bucket boundaries: a window covers the current partial bucket plus whole buckets before it
+        long bucketSeconds = aggregator.getBucket().toSeconds();
+        long start = Instant.now().minus(window.getDuration()).getEpochSecond();
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(start - Math.floorMod(start, bucketSeconds)),
+            ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,275 @@
+package com.teadelivery.ordercatalog.order.controller;
+
+import com.teadelivery.ordercatalog.common.exception.ErrorResponse;
+import com.teadelivery.ordercatalog.common.exception.ValidationErrorResponse;
+import com.teadelivery.ordercatalog.common.pagination.SliceResponse;
+import com.teadelivery.ordercatalog.order.dto.OrderPlaceRequest;
+import com.teadelivery.ordercatalog.order.dto.OrderResponse;
+import com.teadelivery.ordercatalog.order.dto.OrderStatusRequest;
+import com.teadelivery.ordercatalog.order.dto.OrderSummaryResponse;
+import com.teadelivery.ordercatalog.order.service.OrderHistoryService;
+import com.teadelivery.ordercatalog.order.service.OrderPlacementService;
+import com.teadelivery.ordercatalog.order.service.OrderStatusService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/orders")
+@Slf4j
+@RequiredArgsConstructor
+@Tag(name = "Order Management", description = "APIs for order placement, status updates and branch and customer order history")
+public class OrderController {
+    
+    private final OrderHistoryService orderHistoryService;
+    private final OrderPlacementService orderPlacementService;
+    private final OrderStatusService orderStatusService;
+    
+    @Operation(
+        summary = "Place an order",
+        description = "Validates the cart against the branch's current menu, snapshots item names and prices, " +
+                      "adds the delivery fee when a delivery point is given, and creates the order with its items"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "201",
+            description = "Order placed successfully",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = OrderResponse.class),
+                examples = @ExampleObject(
+                    value = "{\"orderId\": 1, \"customerId\": \"550e8400-e29b-41d4-a716-446655440000\", \"branchId\": 1, \"orderStatus\": \"PENDING\", \"paymentStatus\": \"PENDING\", \"itemsTotal\": 60.00, \"deliveryFee\": 20, \"totalAmount\": 80.00, \"items\": [{\"orderItemId\": 1, \"menuItemId\": 1, \"itemName\": \"Masala Chai\", \"quantity\": 2, \"priceAtOrder\": 30.00, \"lineTotal\": 60.00}]}"
+                )
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid input data",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = ValidationErrorResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Branch not found",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "422",
+            description = "Branch closed, not delivering to the location, or cart items missing or unavailable",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        )
+    })
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public OrderResponse placeOrder(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                description = "Branch, cart lines and delivery details",
+                required = true,
+                content = @Content(
+                    schema = @Schema(implementation = OrderPlaceRequest.class),
+                    examples = @ExampleObject(
+                        value = "{\"branchId\": 1, \"items\": [{\"menuItemId\": 1, \"quantity\": 2}], \"deliveryDetails\": {\"type\": \"STANDARD\", \"address\": {\"street\": \"100 Feet Road\"}}, \"deliveryLatitude\": 12.9452, \"deliveryLongitude\": 77.6245}"
+                    )
+                )
+            )
+            @Valid @RequestBody OrderPlaceRequest request) {
+        
+        log.info("Place order request for branch: {}", request.getBranchId());
+        
+        // For now, using a hardcoded userId. In production, this would come from authentication
+        UUID customerId = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+        
+        return orderPlacementService.placeOrder(request, customerId);
+    }
+    
+    @Operation(
+        summary = "Update order status",
+        description = "Moves an order forward: PENDING to ACCEPTED, REJECTED or CANCELLED; ACCEPTED to PREPARING or " +
+                      "CANCELLED; PREPARING to READY; READY to OUT_FOR_DELIVERY or DELIVERED; OUT_FOR_DELIVERY to DELIVERED"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Order status updated successfully",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = OrderResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Missing status or transition not allowed",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Not authorized to update orders for this branch",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Order not found",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        )
+    })
+    @PutMapping("/{orderId}/status")
+    public OrderResponse updateOrderStatus(
+            @Parameter(description = "Order ID", example = "1", required = true)
+            @PathVariable Long orderId,
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                description = "New order status",
+                required = true,
+                content = @Content(
+                    schema = @Schema(implementation = OrderStatusRequest.class),
+                    examples = @ExampleObject(value = "{\"status\": \"ACCEPTED\"}")
+                )
+            )
+            @Valid @RequestBody OrderStatusRequest request) {
+        
+        log.info("Update status request for order: {}", orderId);
+        
+        // For now, using a hardcoded userId. In production, this would come from authentication
+        UUID requestingUserId = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+        
+        return orderStatusService.updateStatus(orderId, request.getStatus(), requestingUserId);
+    }
+    
+    @Operation(
+        summary = "Get branch order history",
+        description = "Retrieves branch orders newest first. Pass the nextCursor of the previous slice as cursor " +
+                      "to continue; page/size offsets are still accepted for existing clients"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Orders retrieved successfully",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = SliceResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid cursor",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Not authorized to view orders for this branch",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Branch not found",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        )
+    })
+    @GetMapping("/branches/{branchId}")
+    public SliceResponse<OrderSummaryResponse> getBranchOrders(
+            @Parameter(description = "Branch ID", example = "1", required = true)
+            @PathVariable Long branchId,
+            @Parameter(description = "Filter by order status (optional)", example = "PENDING")
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Continuation cursor from a previous slice")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page number (0-indexed), ignored when cursor is given", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Slice size", example = "20")
+            @RequestParam(defaultValue = "20") int size) {
+        
+        log.info("Get branch orders request for branch: {}", branchId);
+        
+        // For now, using a hardcoded userId. In production, this would come from authentication
+        UUID requestingUserId = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+        
+        return orderHistoryService.getBranchOrders(branchId, status, cursor, page, size, requestingUserId);
+    }
+    
+    @Operation(
+        summary = "Get customer order history",
+        description = "Retrieves a customer's orders newest first, using the same cursor or page/size paging as branch history"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Orders retrieved successfully",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = SliceResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid cursor",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        ),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Not authorized to view orders for this customer",
+            content = @Content(
+                mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = ErrorResponse.class)
+            )
+        )
+    })
+    @GetMapping("/customers/{customerId}")
+    public SliceResponse<OrderSummaryResponse> getCustomerOrders(
+            @Parameter(description = "Customer ID", example = "550e8400-e29b-41d4-a716-446655440000", required = true)
+            @PathVariable UUID customerId,
+            @Parameter(description = "Continuation cursor from a previous slice")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page number (0-indexed), ignored when cursor is given", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Slice size", example = "20")
+            @RequestParam(defaultValue = "20") int size) {
+        
+        log.info("Get customer orders request for customer: {}", customerId);
+        
+        // For now, using a hardcoded userId. In production, this would come from authentication
+        UUID requestingUserId = UUID.fromString("550e8400-e29b-41d4-a716-446655440000");
+        
+        return orderHistoryService.getCustomerOrders(customerId, cursor, page, size, requestingUserId);
+    }
+}
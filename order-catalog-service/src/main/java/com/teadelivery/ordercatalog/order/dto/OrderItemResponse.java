@@ -0,0 +1,22 @@
+package com.teadelivery.ordercatalog.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderItemResponse {
+    
+    private Long orderItemId;
+    private Long menuItemId;
+    private String itemName;
+    private Integer quantity;
+    private BigDecimal priceAtOrder;
+    private BigDecimal lineTotal;
+}
@@ -0,0 +1,28 @@
+package com.teadelivery.ordercatalog.order.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderLineRequest {
+    
+    @NotNull(message = "Menu item id is required")
+    private Long menuItemId;
+    
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    @Max(value = 50, message = "Quantity must be at most 50")
+    private Integer quantity;
+    
+    private String notes;
+    
+    private Map<String, Object> customizations;
+}
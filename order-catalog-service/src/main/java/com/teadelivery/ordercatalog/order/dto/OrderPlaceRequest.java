@@ -0,0 +1,35 @@
+package com.teadelivery.ordercatalog.order.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderPlaceRequest {
+    
+    @NotNull(message = "Branch id is required")
+    private Long branchId;
+    
+    @NotEmpty(message = "Order must contain at least one item")
+    @Size(max = 50, message = "Order can contain at most 50 lines")
+    @Valid
+    private List<OrderLineRequest> items;
+    
+    @NotNull(message = "Delivery details are required")
+    private Map<String, Object> deliveryDetails;
+    
+    // Optional delivery point; when given, the branch must deliver there and the delivery fee is added
+    private Double deliveryLatitude;
+    private Double deliveryLongitude;
+    
+    private String specialInstructions;
+}
@@ -0,0 +1,30 @@
+package com.teadelivery.ordercatalog.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderResponse {
+    
+    private Long orderId;
+    private UUID customerId;
+    private Long branchId;
+    private String orderStatus;
+    private String paymentStatus;
+    private BigDecimal itemsTotal;
+    private BigDecimal deliveryFee;
+    private BigDecimal totalAmount;
+    private LocalDateTime orderedAt;
+    private LocalDateTime estimatedDeliveryTime;
+    private List<OrderItemResponse> items;
+}
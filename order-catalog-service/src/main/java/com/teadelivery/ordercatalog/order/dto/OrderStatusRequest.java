@@ -0,0 +1,15 @@
+package com.teadelivery.ordercatalog.order.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusRequest {
+    
+    @NotBlank(message = "Order status is required")
+    private String status;
+}
@@ -0,0 +1,27 @@
+package com.teadelivery.ordercatalog.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSummaryResponse {
+    
+    private Long orderId;
+    private UUID customerId;
+    private Long branchId;
+    private String orderStatus;
+    private String paymentStatus;
+    private BigDecimal totalAmount;
+    private LocalDateTime orderedAt;
+    private LocalDateTime estimatedDeliveryTime;
+    private LocalDateTime deliveredAt;
+}
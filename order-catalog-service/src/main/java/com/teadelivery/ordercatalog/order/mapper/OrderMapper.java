@@ -0,0 +1,71 @@
+package com.teadelivery.ordercatalog.order.mapper;
+
+import com.teadelivery.ordercatalog.order.dto.OrderItemResponse;
+import com.teadelivery.ordercatalog.order.dto.OrderResponse;
+import com.teadelivery.ordercatalog.order.dto.OrderSummaryResponse;
+import com.teadelivery.ordercatalog.order.model.Order;
+import com.teadelivery.ordercatalog.order.model.OrderItem;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public class OrderMapper {
+    
+    private OrderMapper() {
+        // Utility class
+    }
+    
+    public static OrderSummaryResponse toSummaryResponse(Order order) {
+        if (order == null) {
+            return null;
+        }
+        
+        return OrderSummaryResponse.builder()
+            .orderId(order.getOrderId())
+            .customerId(order.getCustomerId())
+            .branchId(order.getBranch().getBranchId())
+            .orderStatus(order.getOrderStatus())
+            .paymentStatus(order.getPaymentStatus())
+            .totalAmount(order.getTotalAmount())
+            .orderedAt(order.getOrderedAt())
+            .estimatedDeliveryTime(order.getEstimatedDeliveryTime())
+            .deliveredAt(order.getDeliveredAt())
+            .build();
+    }
+    
+    public static OrderResponse toResponse(Order order) {
+        if (order == null) {
+            return null;
+        }
+        
+        return OrderResponse.builder()
+            .orderId(order.getOrderId())
+            .customerId(order.getCustomerId())
+            .branchId(order.getBranch().getBranchId())
+            .orderStatus(order.getOrderStatus())
+            .paymentStatus(order.getPaymentStatus())
+            .itemsTotal(amount(order.getMetadata(), "itemsTotal"))
+            .deliveryFee(amount(order.getMetadata(), "deliveryFee"))
+            .totalAmount(order.getTotalAmount())
+            .orderedAt(order.getOrderedAt())
+            .estimatedDeliveryTime(order.getEstimatedDeliveryTime())
+            .items(order.getOrderItems().stream().map(OrderMapper::toItemResponse).toList())
+            .build();
+    }
+    
+    public static OrderItemResponse toItemResponse(OrderItem item) {
+        return OrderItemResponse.builder()
+            .orderItemId(item.getOrderItemId())
+            .menuItemId(item.getMenuItem().getMenuItemId())
+            .itemName(item.getItemName())
+            .quantity(item.getQuantity())
+            .priceAtOrder(item.getPriceAtOrder())
+            .lineTotal(item.getPriceAtOrder().multiply(BigDecimal.valueOf(item.getQuantity())))
+            .build();
+    }
+    
+    private static BigDecimal amount(Map<String, Object> metadata, String key) {
+        Object value = metadata == null ? null : metadata.get(key);
+        return value == null ? null : new BigDecimal(value.toString());
+    }
+}
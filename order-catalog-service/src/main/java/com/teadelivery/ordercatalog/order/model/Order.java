@@ -1,5 +1,6 @@
 package com.teadelivery.ordercatalog.order.model;
 
+import com.teadelivery.ordercatalog.common.persistence.PooledIds;
 import com.teadelivery.ordercatalog.vendor.model.VendorBranch;
 import io.hypersistence.utils.hibernate.type.json.JsonBinaryType;
 import jakarta.persistence.*;
@@ -20,7 +21,10 @@ import java.util.*;
     @Index(name = "idx_orders_customer_id", columnList = "customer_id"),
     @Index(name = "idx_orders_branch_id", columnList = "branch_id"),
     @Index(name = "idx_orders_status", columnList = "order_status"),
-    @Index(name = "idx_orders_ordered_at", columnList = "ordered_at DESC")
+    @Index(name = "idx_orders_ordered_at", columnList = "ordered_at DESC"),
+    @Index(name = "idx_orders_branch_ordered_at", columnList = "branch_id, ordered_at DESC, order_id DESC"),
+    @Index(name = "idx_orders_branch_status_ordered_at", columnList = "branch_id, order_status, ordered_at DESC, order_id DESC"),
+    @Index(name = "idx_orders_customer_ordered_at", columnList = "customer_id, ordered_at DESC, order_id DESC")
 })
 @Data
 @NoArgsConstructor
@@ -29,7 +33,8 @@ import java.util.*;
 public class Order {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_order_id_seq")
+    @SequenceGenerator(name = "orders_order_id_seq", sequenceName = "orders_order_id_seq", allocationSize = PooledIds.ALLOCATION_SIZE)
     @Column(name = "order_id")
     private Long orderId;
     
@@ -1,5 +1,6 @@
 package com.teadelivery.ordercatalog.order.model;
 
+import com.teadelivery.ordercatalog.common.persistence.PooledIds;
 import com.teadelivery.ordercatalog.menu.model.MenuItem;
 import io.hypersistence.utils.hibernate.type.json.JsonBinaryType;
 import jakarta.persistence.*;
@@ -26,7 +27,8 @@ import java.util.*;
 public class OrderItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_order_item_id_seq")
+    @SequenceGenerator(name = "order_items_order_item_id_seq", sequenceName = "order_items_order_item_id_seq", allocationSize = PooledIds.ALLOCATION_SIZE)
     @Column(name = "order_item_id")
     private Long orderItemId;
     
@@ -2,8 +2,8 @@ package com.teadelivery.ordercatalog.order.repository;
 
 import com.teadelivery.ordercatalog.order.model.Order;
 import com.teadelivery.ordercatalog.vendor.model.VendorBranch;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -13,12 +13,25 @@ import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, UUID> {
+public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByCustomerId(UUID customerId);
-    Page<Order> findByCustomerIdOrderByOrderedAtDesc(UUID customerId, Pageable pageable);
+    Slice<Order> findByCustomerIdOrderByOrderedAtDescOrderIdDesc(UUID customerId, Pageable pageable);
     List<Order> findByBranch(VendorBranch branch);
-    Page<Order> findByBranchOrderByOrderedAtDesc(VendorBranch branch, Pageable pageable);
-    Page<Order> findByBranchAndOrderStatusOrderByOrderedAtDesc(VendorBranch branch, String status, Pageable pageable);
+    Slice<Order> findByBranchOrderByOrderedAtDescOrderIdDesc(VendorBranch branch, Pageable pageable);
+    Slice<Order> findByBranchAndOrderStatusOrderByOrderedAtDescOrderIdDesc(VendorBranch branch, String status, Pageable pageable);
+    
+    // Keyset continuations: rows strictly after (orderedAt, orderId) in (ordered_at DESC, order_id DESC) order
+    @Query("SELECT o FROM Order o WHERE o.customerId = :customerId AND o.orderedAt <= :orderedAt " +
+           "AND (o.orderedAt < :orderedAt OR o.orderId < :orderId) ORDER BY o.orderedAt DESC, o.orderId DESC")
+    Slice<Order> findCustomerOrdersBefore(UUID customerId, LocalDateTime orderedAt, Long orderId, Pageable pageable);
+    
+    @Query("SELECT o FROM Order o WHERE o.branch = :branch AND o.orderedAt <= :orderedAt " +
+           "AND (o.orderedAt < :orderedAt OR o.orderId < :orderId) ORDER BY o.orderedAt DESC, o.orderId DESC")
+    Slice<Order> findBranchOrdersBefore(VendorBranch branch, LocalDateTime orderedAt, Long orderId, Pageable pageable);
+    
+    @Query("SELECT o FROM Order o WHERE o.branch = :branch AND o.orderStatus = :status AND o.orderedAt <= :orderedAt " +
+           "AND (o.orderedAt < :orderedAt OR o.orderId < :orderId) ORDER BY o.orderedAt DESC, o.orderId DESC")
+    Slice<Order> findBranchOrdersByStatusBefore(VendorBranch branch, String status, LocalDateTime orderedAt, Long orderId, Pageable pageable);
     
     @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.customerId = :customerId ORDER BY o.orderedAt DESC")
     List<Order> findCustomerOrdersOptimized(UUID customerId);
@@ -0,0 +1,123 @@
+package com.teadelivery.ordercatalog.order.service;
+
+import com.teadelivery.ordercatalog.common.exception.BranchNotFoundException;
+import com.teadelivery.ordercatalog.common.exception.UnauthorizedException;
+import com.teadelivery.ordercatalog.common.pagination.CursorCodec;
+import com.teadelivery.ordercatalog.common.pagination.SliceResponse;
+import com.teadelivery.ordercatalog.order.dto.OrderSummaryResponse;
+import com.teadelivery.ordercatalog.order.mapper.OrderMapper;
+import com.teadelivery.ordercatalog.order.model.Order;
+import com.teadelivery.ordercatalog.order.repository.OrderRepository;
+import com.teadelivery.ordercatalog.vendor.model.VendorBranch;
+import com.teadelivery.ordercatalog.vendor.repository.VendorBranchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Order history listings, newest first. A cursor continues with a keyset seek on
+ * (ordered_at, order_id); without one the legacy page/size offset is used. Neither path counts rows.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OrderHistoryService {
+    
+    private final OrderRepository orderRepository;
+    private final VendorBranchRepository branchRepository;
+    
+    @Transactional(readOnly = true)
+    public SliceResponse<OrderSummaryResponse> getBranchOrders(Long branchId, String status, String cursor,
+                                                               int page, int size, UUID requestingUserId) {
+        log.info("Fetching orders for branch: {}", branchId);
+        
+        VendorBranch branch = branchRepository.findById(branchId)
+            .orElseThrow(() -> new BranchNotFoundException("Branch not found"));
+        
+        if (!branch.getVendor().getUserId().equals(requestingUserId)) {
+            throw new UnauthorizedException("Not authorized to view orders for this branch");
+        }
+        
+        Slice<Order> orders;
+        if (hasPosition(cursor)) {
+            OrderCursor position = parseCursor(cursor);
+            Pageable first = PageRequest.ofSize(size);
+            orders = status == null
+                ? orderRepository.findBranchOrdersBefore(branch, position.orderedAt(), position.orderId(), first)
+                : orderRepository.findBranchOrdersByStatusBefore(branch, status, position.orderedAt(), position.orderId(), first);
+        } else {
+            Pageable pageable = PageRequest.of(cursor == null ? page : 0, size);
+            orders = status == null
+                ? orderRepository.findByBranchOrderByOrderedAtDescOrderIdDesc(branch, pageable)
+                : orderRepository.findByBranchAndOrderStatusOrderByOrderedAtDescOrderIdDesc(branch, status, pageable);
+        }
+        
+        return toSliceResponse(orders, size);
+    }
+    
+    @Transactional(readOnly = true)
+    public SliceResponse<OrderSummaryResponse> getCustomerOrders(UUID customerId, String cursor,
+                                                                 int page, int size, UUID requestingUserId) {
+        log.info("Fetching orders for customer: {}", customerId);
+        
+        if (!customerId.equals(requestingUserId)) {
+            throw new UnauthorizedException("Not authorized to view orders for this customer");
+        }
+        
+        Slice<Order> orders;
+        if (hasPosition(cursor)) {
+            OrderCursor position = parseCursor(cursor);
+            orders = orderRepository.findCustomerOrdersBefore(customerId, position.orderedAt(), position.orderId(),
+                PageRequest.ofSize(size));
+        } else {
+            orders = orderRepository.findByCustomerIdOrderByOrderedAtDescOrderIdDesc(customerId,
+                PageRequest.of(cursor == null ? page : 0, size));
+        }
+        
+        return toSliceResponse(orders, size);
+    }
+    
+    private SliceResponse<OrderSummaryResponse> toSliceResponse(Slice<Order> orders, int size) {
+        List<OrderSummaryResponse> items = orders.getContent().stream()
+            .map(OrderMapper::toSummaryResponse)
+            .toList();
+        
+        String nextCursor = null;
+        if (orders.hasNext()) {
+            OrderSummaryResponse last = items.get(items.size() - 1);
+            nextCursor = CursorCodec.encode(last.getOrderedAt(), last.getOrderId());
+        }
+        
+        return SliceResponse.<OrderSummaryResponse>builder()
+            .items(items)
+            .size(size)
+            .hasNext(orders.hasNext())
+            .nextCursor(nextCursor)
+            .build();
+    }
+    
+    private boolean hasPosition(String cursor) {
+        return cursor != null && !cursor.isEmpty();
+    }
+    
+    private OrderCursor parseCursor(String cursor) {
+        String[] keys = CursorCodec.decode(cursor, 2);
+        try {
+            return new OrderCursor(LocalDateTime.parse(keys[0]), Long.valueOf(keys[1]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+    
+    private record OrderCursor(LocalDateTime orderedAt, Long orderId) {
+    }
+}
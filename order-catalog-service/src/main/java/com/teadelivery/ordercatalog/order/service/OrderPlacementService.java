@@ -0,0 +1,171 @@
+package com.teadelivery.ordercatalog.order.service;
+
+import com.teadelivery.ordercatalog.common.exception.OrderRejectedException;
+import com.teadelivery.ordercatalog.menu.dto.MenuItemResponse;
+import com.teadelivery.ordercatalog.menu.model.MenuItem;
+import com.teadelivery.ordercatalog.menu.service.MenuService;
+import com.teadelivery.ordercatalog.order.dto.OrderLineRequest;
+import com.teadelivery.ordercatalog.order.dto.OrderPlaceRequest;
+import com.teadelivery.ordercatalog.order.dto.OrderResponse;
+import com.teadelivery.ordercatalog.order.mapper.OrderMapper;
+import com.teadelivery.ordercatalog.order.model.Order;
+import com.teadelivery.ordercatalog.order.model.OrderItem;
+import com.teadelivery.ordercatalog.order.repository.OrderRepository;
+import com.teadelivery.ordercatalog.outbox.OutboxWriter;
+import com.teadelivery.ordercatalog.vendor.dto.BranchResponse;
+import com.teadelivery.ordercatalog.vendor.dto.ServiceabilityResponse;
+import com.teadelivery.ordercatalog.vendor.model.VendorBranch;
+import com.teadelivery.ordercatalog.vendor.service.BranchOnboardingService;
+import com.teadelivery.ordercatalog.vendor.service.ServiceabilityService;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Places customer orders against the branch's current menu.
+ * <p>
+ * Everything that decides whether the order is acceptable is read from caches: the branch from the branch
+ * cache, prices and availability from the id-ordered cached menu (one lookup per line, no per-item
+ * {@code findById}) and the delivery fee from the in-memory serviceability index. Names and prices are
+ * snapshotted onto the order items, so later menu edits never change a placed order. Only then is a
+ * transaction opened, and the order and its items are written together by cascade, with branch and menu
+ * item references taken as proxies instead of being loaded, alongside the {@code ORDER_CREATED} outbox event.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OrderPlacementService {
+    
+    private final OrderRepository orderRepository;
+    private final BranchOnboardingService branchService;
+    private final MenuService menuService;
+    private final ServiceabilityService serviceabilityService;
+    private final OutboxWriter outboxWriter;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    
+    private record PricedLine(OrderLineRequest request, MenuItemResponse menuItem) {}
+    
+    public OrderResponse placeOrder(OrderPlaceRequest request, UUID customerId) {
+        Long branchId = request.getBranchId();
+        log.info("Placing order for customer {} at branch {}", customerId, branchId);
+        
+        BranchResponse branch = branchService.getBranch(branchId);
+        if (!Boolean.TRUE.equals(branch.getIsActive()) || !Boolean.TRUE.equals(branch.getIsOpen())) {
+            throw new OrderRejectedException("Branch is not accepting orders right now");
+        }
+        
+        BigDecimal deliveryFee = quoteDeliveryFee(request);
+        
+        List<MenuItemResponse> menu = menuService.getCurrentMenu(branchId);
+        List<PricedLine> lines = new ArrayList<>(request.getItems().size());
+        for (OrderLineRequest line : request.getItems()) {
+            MenuItemResponse menuItem = findMenuItem(menu, line.getMenuItemId());
+            if (menuItem == null) {
+                throw new OrderRejectedException("Menu item " + line.getMenuItemId() + " is not on this branch's menu");
+            }
+            if (!Boolean.TRUE.equals(menuItem.getIsAvailable())) {
+                throw new OrderRejectedException(menuItem.getName() + " is currently unavailable");
+            }
+            lines.add(new PricedLine(line, menuItem));
+        }
+        
+        // Only the writes run inside the transaction; proxies stand in for the branch and menu item rows
+        OrderResponse placed = transactionTemplate.execute(status -> {
+            Order saved = orderRepository.save(buildOrder(request, customerId, lines, deliveryFee));
+            OrderResponse response = OrderMapper.toResponse(saved);
+            outboxWriter.append(OutboxWriter.ORDER_TOPIC, branchId, OutboxWriter.ORDER_CREATED, response);
+            return response;
+        });
+        
+        log.info("Order placed: {}", placed.getOrderId());
+        return placed;
+    }
+    
+    /**
+     * Distance-based fee when the order carries a delivery point; orders without one (pickup, or legacy
+     * clients) are not charged.
+     */
+    private BigDecimal quoteDeliveryFee(OrderPlaceRequest request) {
+        if (request.getDeliveryLatitude() == null || request.getDeliveryLongitude() == null) {
+            return BigDecimal.ZERO;
+        }
+        ServiceabilityResponse serviceability = serviceabilityService.check(
+            request.getBranchId(), request.getDeliveryLatitude(), request.getDeliveryLongitude());
+        if (!serviceability.getServiceable()) {
+            throw new OrderRejectedException("Branch does not deliver to this location");
+        }
+        return serviceability.getDeliveryFee();
+    }
+    
+    private Order buildOrder(OrderPlaceRequest request, UUID customerId, List<PricedLine> lines, BigDecimal deliveryFee) {
+        Order order = new Order();
+        order.setCustomerId(customerId);
+        order.setBranch(entityManager.getReference(VendorBranch.class, request.getBranchId()));
+        order.setDeliveryDetails(request.getDeliveryDetails());
+        order.setSpecialInstructions(request.getSpecialInstructions());
+        
+        int preparationMinutes = 0;
+        for (PricedLine line : lines) {
+            MenuItemResponse menuItem = line.menuItem();
+            OrderItem item = new OrderItem();
+            item.setMenuItem(entityManager.getReference(MenuItem.class, menuItem.getMenuItemId()));
+            item.setItemName(menuItem.getName());
+            item.setPriceAtOrder(menuItem.getPrice());
+            item.setQuantity(line.request().getQuantity());
+            item.setNotes(line.request().getNotes());
+            item.setCustomizations(line.request().getCustomizations());
+            order.addOrderItem(item);
+            
+            if (menuItem.getPreparationTimeMinutes() != null) {
+                preparationMinutes = Math.max(preparationMinutes, menuItem.getPreparationTimeMinutes());
+            }
+        }
+        
+        order.calculateTotalAmount();
+        BigDecimal itemsTotal = order.getTotalAmount();
+        order.setTotalAmount(itemsTotal.add(deliveryFee));
+        
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("itemsTotal", itemsTotal);
+        metadata.put("deliveryFee", deliveryFee);
+        order.setMetadata(metadata);
+        
+        LocalDateTime orderedAt = LocalDateTime.now();
+        order.setOrderedAt(orderedAt);
+        order.setEstimatedDeliveryTime(orderedAt.plusMinutes(preparationMinutes));
+        return order;
+    }
+    
+    /**
+     * Binary search over the cached menu, which is ordered by menu item id.
+     */
+    private static MenuItemResponse findMenuItem(List<MenuItemResponse> menu, Long menuItemId) {
+        int low = 0;
+        int high = menu.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            MenuItemResponse candidate = menu.get(mid);
+            int comparison = candidate.getMenuItemId().compareTo(menuItemId);
+            if (comparison == 0) {
+                return candidate;
+            }
+            if (comparison < 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,73 @@
+package com.teadelivery.ordercatalog.order.service;
+
+import com.teadelivery.ordercatalog.common.exception.OrderNotFoundException;
+import com.teadelivery.ordercatalog.common.exception.UnauthorizedException;
+import com.teadelivery.ordercatalog.order.dto.OrderResponse;
+import com.teadelivery.ordercatalog.order.mapper.OrderMapper;
+import com.teadelivery.ordercatalog.order.model.Order;
+import com.teadelivery.ordercatalog.order.repository.OrderRepository;
+import com.teadelivery.ordercatalog.outbox.OutboxWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Vendor-driven order status changes. Only forward transitions are accepted, and every change is
+ * written to the outbox in the same transaction as the order row.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class OrderStatusService {
+    
+    private static final Map<String, Set<String>> TRANSITIONS = Map.of(
+        "PENDING", Set.of("ACCEPTED", "REJECTED", "CANCELLED"),
+        "ACCEPTED", Set.of("PREPARING", "CANCELLED"),
+        "PREPARING", Set.of("READY"),
+        "READY", Set.of("OUT_FOR_DELIVERY", "DELIVERED"),
+        "OUT_FOR_DELIVERY", Set.of("DELIVERED"));
+    
+    private final OrderRepository orderRepository;
+    private final OutboxWriter outboxWriter;
+    
+    private record OrderStatusChangedEvent(Long orderId, Long branchId, String previousStatus, String orderStatus,
+                                           LocalDateTime changedAt) {}
+    
+    @Transactional
+    public OrderResponse updateStatus(Long orderId, String status, UUID requestingUserId) {
+        log.info("Updating status of order {} to {}", orderId, status);
+        
+        Order order = orderRepository.findById(orderId)
+            .orElseThrow(() -> new OrderNotFoundException("Order not found"));
+        
+        if (!order.getBranch().getVendor().getUserId().equals(requestingUserId)) {
+            throw new UnauthorizedException("Not authorized to update orders for this branch");
+        }
+        
+        String previousStatus = order.getOrderStatus();
+        String nextStatus = status.trim().toUpperCase(Locale.ROOT);
+        if (!TRANSITIONS.getOrDefault(previousStatus, Set.of()).contains(nextStatus)) {
+            throw new IllegalArgumentException("Cannot change order status from " + previousStatus + " to " + nextStatus);
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        order.setOrderStatus(nextStatus);
+        if ("DELIVERED".equals(nextStatus)) {
+            order.setDeliveredAt(now);
+        }
+        
+        Long branchId = order.getBranch().getBranchId();
+        outboxWriter.append(OutboxWriter.ORDER_TOPIC, branchId, OutboxWriter.ORDER_STATUS_CHANGED,
+            new OrderStatusChangedEvent(orderId, branchId, previousStatus, nextStatus, now));
+        
+        log.info("Order {} moved from {} to {}", orderId, previousStatus, nextStatus);
+        return OrderMapper.toResponse(order);
+    }
+}
@@ -0,0 +1,133 @@
+package com.teadelivery.ordercatalog.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the outbox to Kafka in batches.
+ * <p>
+ * Each batch runs in one transaction holding a Postgres advisory lock, so exactly one instance relays
+ * at a time and events leave in {@code event_id} order; with the branch id as record key and an
+ * idempotent producer, every branch's events reach its partition in order. All records of a batch are
+ * sent before the first acknowledgement is awaited (the producer's linger/batch settings group them),
+ * and the rows are deleted only once every send has been acknowledged. A failed send rolls the batch
+ * back and it is retried on the next poll, so delivery is at-least-once; consumers dedupe on the
+ * {@code eventId} header.
+ */
+@Service
+@Slf4j
+public class OutboxRelay {
+    
+    // Arbitrary but fixed: identifies the relay's advisory lock across instances
+    private static final long RELAY_LOCK_KEY = 0x6f7574626f78L;
+    
+    private static final String SELECT_BATCH_SQL =
+        "SELECT event_id, topic, event_key, event_type, payload::text FROM outbox_events ORDER BY event_id LIMIT ?";
+    private static final String DELETE_BATCH_SQL =
+        "DELETE FROM outbox_events WHERE event_id = ANY (?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final Duration sendTimeout;
+    private final Counter published;
+    private final Counter failures;
+    
+    private record OutboxEvent(long eventId, String topic, String key, String eventType, String payload) {}
+    
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       TransactionTemplate transactionTemplate,
+                       KafkaTemplate<String, String> kafkaTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${outbox.relay.max-batches-per-poll:20}") int maxBatchesPerPoll,
+                       @Value("${outbox.relay.send-timeout:PT10S}") Duration sendTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+        this.sendTimeout = sendTimeout;
+        this.published = Counter.builder("outbox.events.published")
+            .description("Outbox events acknowledged by Kafka")
+            .register(meterRegistry);
+        this.failures = Counter.builder("outbox.relay.failures")
+            .description("Outbox batches rolled back after a failed send")
+            .register(meterRegistry);
+    }
+    
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval:PT0.5S}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            for (int i = 0; i < maxBatchesPerPoll; i++) {
+                Integer relayed = transactionTemplate.execute(status -> relayBatch());
+                if (relayed == null || relayed < batchSize) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("Outbox relay failed, batch will be retried: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Publishes and deletes one batch; returns the number of events relayed, or 0 when another instance holds the relay.
+     */
+    private int relayBatch() {
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, RELAY_LOCK_KEY);
+        if (!Boolean.TRUE.equals(locked)) {
+            return 0;
+        }
+        
+        List<OutboxEvent> events = jdbcTemplate.query(SELECT_BATCH_SQL, (rs, rowNum) -> new OutboxEvent(
+            rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5)), batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        
+        List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            ProducerRecord<String, String> record = new ProducerRecord<>(event.topic(), event.key(), event.payload());
+            record.headers().add("eventId", String.valueOf(event.eventId()).getBytes(StandardCharsets.UTF_8));
+            record.headers().add("eventType", event.eventType().getBytes(StandardCharsets.UTF_8));
+            sends.add(kafkaTemplate.send(record));
+        }
+        kafkaTemplate.flush();
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture<?>[]::new)).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            throw new IllegalStateException("Kafka did not acknowledge outbox batch", e);
+        }
+        
+        Long[] eventIds = events.stream().map(OutboxEvent::eventId).toArray(Long[]::new);
+        jdbcTemplate.update(DELETE_BATCH_SQL, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", eventIds)));
+        published.increment(events.size());
+        log.debug("Relayed {} outbox events", events.size());
+        return events.size();
+    }
+}
@@ -0,0 +1,45 @@
+package com.teadelivery.ordercatalog.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Appends domain events to the outbox table inside the caller's transaction, so an event exists
+ * exactly when the change it describes has committed. {@link OutboxRelay} publishes them to Kafka.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+    
+    public static final String ORDER_TOPIC = "order-catalog.orders";
+    public static final String MENU_TOPIC = "order-catalog.menus";
+    
+    public static final String ORDER_CREATED = "ORDER_CREATED";
+    public static final String ORDER_STATUS_CHANGED = "ORDER_STATUS_CHANGED";
+    public static final String MENU_CHANGED = "MENU_CHANGED";
+    
+    private static final String INSERT_EVENT_SQL =
+        "INSERT INTO outbox_events (topic, event_key, event_type, payload) VALUES (?, ?, ?, ?::jsonb)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * Records an event keyed by branch; fails if no transaction is active.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String topic, Long branchId, String eventType, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + eventType + " event", e);
+        }
+        jdbcTemplate.update(INSERT_EVENT_SQL, topic, String.valueOf(branchId), eventType, json);
+    }
+}
@@ -0,0 +1,30 @@
+package com.teadelivery.ordercatalog.warmup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/cachewarmup}: progress of the current or last warm-up, and a trigger to re-run it
+ * (e.g. after a Redis failover).
+ */
+@Component
+@Endpoint(id = "cachewarmup")
+@RequiredArgsConstructor
+public class CacheWarmupEndpoint {
+    
+    private final CacheWarmupService warmupService;
+    
+    @ReadOperation
+    public WarmupProgress progress() {
+        return warmupService.getProgress();
+    }
+    
+    @WriteOperation
+    public WarmupProgress start() {
+        warmupService.start();
+        return warmupService.getProgress();
+    }
+}
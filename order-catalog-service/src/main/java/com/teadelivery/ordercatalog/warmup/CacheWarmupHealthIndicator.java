@@ -0,0 +1,29 @@
+package com.teadelivery.ordercatalog.warmup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the readiness group OUT_OF_SERVICE until the startup cache warm-up reaches its coverage target.
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheWarmupHealthIndicator implements HealthIndicator {
+    
+    private final CacheWarmupService warmupService;
+    
+    @Override
+    public Health health() {
+        WarmupProgress progress = warmupService.getProgress();
+        Health.Builder builder = warmupService.isReady() ? Health.up() : Health.outOfService();
+        return builder
+            .withDetail("state", progress.getState())
+            .withDetail("totalBranches", progress.getTotalBranches())
+            .withDetail("warmedBranches", progress.getWarmedBranches())
+            .withDetail("failedBranches", progress.getFailedBranches())
+            .withDetail("coverage", progress.getCoverage())
+            .build();
+    }
+}
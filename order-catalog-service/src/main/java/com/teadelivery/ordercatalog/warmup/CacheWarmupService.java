@@ -0,0 +1,180 @@
+package com.teadelivery.ordercatalog.warmup;
+
+import com.teadelivery.ordercatalog.menu.service.MenuService;
+import com.teadelivery.ordercatalog.vendor.repository.VendorBranchRepository;
+import com.teadelivery.ordercatalog.vendor.service.BranchOnboardingService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prebuilds branch details and menu caches for every open branch so the first customer requests
+ * after a deploy (or a Redis failover, via the cachewarmup actuator endpoint) do not all miss at once.
+ * Branches are warmed on virtual threads; a semaphore bounds how many hit the database concurrently.
+ */
+@Service
+@Slf4j
+public class CacheWarmupService {
+    
+    private final VendorBranchRepository branchRepository;
+    private final BranchOnboardingService branchService;
+    private final MenuService menuService;
+    private final MeterRegistry meterRegistry;
+    private final Timer warmupTimer;
+    private final boolean enabled;
+    private final int dbConcurrency;
+    private final double readinessCoverage;
+    private final Duration readinessTimeout;
+    
+    private final AtomicInteger totalBranches = new AtomicInteger();
+    private final AtomicInteger warmedBranches = new AtomicInteger();
+    private final AtomicInteger failedBranches = new AtomicInteger();
+    private volatile String state = WarmupProgress.NOT_STARTED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    
+    public CacheWarmupService(VendorBranchRepository branchRepository,
+                              BranchOnboardingService branchService,
+                              MenuService menuService,
+                              MeterRegistry meterRegistry,
+                              @Value("${cache.warmup.enabled:true}") boolean enabled,
+                              @Value("${cache.warmup.db-concurrency:4}") int dbConcurrency,
+                              @Value("${cache.warmup.readiness-coverage:0.9}") double readinessCoverage,
+                              @Value("${cache.warmup.readiness-timeout:PT2M}") Duration readinessTimeout) {
+        this.branchRepository = branchRepository;
+        this.branchService = branchService;
+        this.menuService = menuService;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.dbConcurrency = dbConcurrency;
+        this.readinessCoverage = readinessCoverage;
+        this.readinessTimeout = readinessTimeout;
+        
+        this.warmupTimer = Timer.builder("cache.warmup.duration")
+            .description("Time to warm branch caches")
+            .register(meterRegistry);
+    }
+    
+    // Registered once constructed, so the gauge never sees a partially initialized service
+    @PostConstruct
+    void registerCoverageGauge() {
+        Gauge.builder("cache.warmup.coverage", this, service -> service.coverage())
+            .description("Fraction of open branches warmed by the current or last warm-up")
+            .register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        if (enabled) {
+            start();
+        }
+    }
+    
+    /**
+     * Starts a warm-up in the background unless one is already running.
+     *
+     * @return whether a new warm-up was started
+     */
+    public synchronized boolean start() {
+        if (WarmupProgress.RUNNING.equals(state)) {
+            return false;
+        }
+        totalBranches.set(0);
+        warmedBranches.set(0);
+        failedBranches.set(0);
+        startedAt = Instant.now();
+        finishedAt = null;
+        state = WarmupProgress.RUNNING;
+        Thread.ofVirtual().name("cache-warmup").start(this::run);
+        return true;
+    }
+    
+    /**
+     * Ready once enough open branches are warm, the warm-up has finished, or it has run past
+     * the readiness timeout; a slow or failing cache never keeps the instance out of rotation for good.
+     */
+    public boolean isReady() {
+        if (!enabled || WarmupProgress.COMPLETED.equals(state) || coverage() >= readinessCoverage) {
+            return true;
+        }
+        Instant started = startedAt;
+        return started != null && Duration.between(started, Instant.now()).compareTo(readinessTimeout) > 0;
+    }
+    
+    public WarmupProgress getProgress() {
+        Instant started = startedAt;
+        Instant finished = finishedAt;
+        return WarmupProgress.builder()
+            .state(state)
+            .totalBranches(totalBranches.get())
+            .warmedBranches(warmedBranches.get())
+            .failedBranches(failedBranches.get())
+            .coverage(coverage())
+            .startedAt(started)
+            .finishedAt(finished)
+            .durationMs(started == null ? null
+                : Duration.between(started, finished != null ? finished : Instant.now()).toMillis())
+            .build();
+    }
+    
+    private double coverage() {
+        int total = totalBranches.get();
+        if (total == 0) {
+            return WarmupProgress.COMPLETED.equals(state) ? 1.0 : 0.0;
+        }
+        return (double) warmedBranches.get() / total;
+    }
+    
+    private void run() {
+        try {
+            List<Long> branchIds = branchRepository.findOpenBranchIds();
+            totalBranches.set(branchIds.size());
+            log.info("Warming caches for {} open branches (db concurrency {})", branchIds.size(), dbConcurrency);
+            
+            Semaphore dbPermits = new Semaphore(dbConcurrency);
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (Long branchId : branchIds) {
+                    executor.submit(() -> warmBranch(branchId, dbPermits));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Cache warm-up aborted: {}", e.getMessage());
+        } finally {
+            finishedAt = Instant.now();
+            state = WarmupProgress.COMPLETED;
+            Duration duration = Duration.between(startedAt, finishedAt);
+            warmupTimer.record(duration);
+            log.info("Cache warm-up finished in {} ms: {} warmed, {} failed",
+                duration.toMillis(), warmedBranches.get(), failedBranches.get());
+        }
+    }
+    
+    private void warmBranch(Long branchId, Semaphore dbPermits) {
+        dbPermits.acquireUninterruptibly();
+        try {
+            branchService.getBranch(branchId);
+            Integer menuVersion = menuService.getMenuVersion(branchId);
+            menuService.getBranchMenuPayload(branchId, menuVersion);
+            warmedBranches.incrementAndGet();
+        } catch (Exception e) {
+            failedBranches.incrementAndGet();
+            log.warn("Failed to warm caches for branch {}: {}", branchId, e.getMessage());
+        } finally {
+            dbPermits.release();
+        }
+    }
+}
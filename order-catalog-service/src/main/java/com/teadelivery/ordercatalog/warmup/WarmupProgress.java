@@ -0,0 +1,28 @@
+package com.teadelivery.ordercatalog.warmup;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WarmupProgress {
+    
+    public static final String NOT_STARTED = "NOT_STARTED";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    
+    private String state;
+    private Integer totalBranches;
+    private Integer warmedBranches;
+    private Integer failedBranches;
+    private Double coverage;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private Long durationMs;
+}
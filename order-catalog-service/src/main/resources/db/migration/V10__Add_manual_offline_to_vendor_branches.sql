@@ -0,0 +1,4 @@
+-- V10__Add_manual_offline_to_vendor_branches.sql
+-- Vendor-set offline override: the open/close scheduler never reopens these branches
+
+ALTER TABLE vendor_branches ADD COLUMN manual_offline BOOLEAN NOT NULL DEFAULT false;
@@ -0,0 +1,9 @@
+-- V11__Use_pooled_id_sequences.sql
+-- Hand out ids in blocks of 50 so Hibernate can batch inserts (IDENTITY forces one round trip per row).
+-- Every nextval reserves (value - 49, value]; plain DEFAULT nextval inserts stay safe, they just leave gaps.
+-- INCREMENT BY must stay equal to PooledIds.ALLOCATION_SIZE.
+
+ALTER SEQUENCE vendor_branches_branch_id_seq INCREMENT BY 50;
+ALTER SEQUENCE menu_items_menu_item_id_seq INCREMENT BY 50;
+ALTER SEQUENCE orders_order_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_items_order_item_id_seq INCREMENT BY 50;
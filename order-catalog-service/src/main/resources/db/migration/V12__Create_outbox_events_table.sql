@@ -0,0 +1,15 @@
+-- V12__Create_outbox_events_table.sql
+-- Transactional outbox: events are written in the same transaction as the change they describe
+-- and relayed to Kafka in batches; relayed rows are deleted, so the table only holds the backlog
+
+CREATE TABLE outbox_events (
+    event_id BIGSERIAL PRIMARY KEY,
+    topic VARCHAR(100) NOT NULL,
+    
+    -- Kafka record key (branch id), keeps each branch's events on one partition in order
+    event_key VARCHAR(100) NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload JSONB NOT NULL,
+    
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL
+);
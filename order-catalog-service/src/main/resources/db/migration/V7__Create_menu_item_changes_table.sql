@@ -0,0 +1,21 @@
+-- V7__Create_menu_item_changes_table.sql
+-- Append-only per-branch menu change log for incremental (delta) menu sync
+
+CREATE TABLE menu_item_changes (
+    change_id BIGSERIAL PRIMARY KEY,
+    branch_id BIGINT NOT NULL REFERENCES vendor_branches(branch_id) ON DELETE CASCADE,
+    menu_item_id BIGINT NOT NULL,
+    
+    -- Branch menu version produced by this change
+    menu_version INTEGER NOT NULL,
+    
+    -- CREATED, UPDATED, DELETED
+    change_type VARCHAR(20) NOT NULL,
+    
+    -- Audit
+    changed_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Indexes
+CREATE INDEX idx_menu_item_changes_branch_version ON menu_item_changes(branch_id, menu_version);
+CREATE INDEX idx_menu_item_changes_changed_at ON menu_item_changes(changed_at);
@@ -0,0 +1,10 @@
+-- V8__Add_keyset_pagination_indexes.sql
+-- Composite indexes matching the keyset (seek) predicates used for order history and menu listings
+
+-- Order history is read newest first with (ordered_at, order_id) as the continuation key
+CREATE INDEX idx_orders_branch_ordered_at ON orders(branch_id, ordered_at DESC, order_id DESC);
+CREATE INDEX idx_orders_branch_status_ordered_at ON orders(branch_id, order_status, ordered_at DESC, order_id DESC);
+CREATE INDEX idx_orders_customer_ordered_at ON orders(customer_id, ordered_at DESC, order_id DESC);
+
+-- Branch menus are loaded in menu_item_id order
+CREATE INDEX idx_menu_items_branch_item ON menu_items(branch_id, menu_item_id) WHERE is_deleted = false;
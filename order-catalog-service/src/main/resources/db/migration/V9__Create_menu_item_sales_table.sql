@@ -0,0 +1,37 @@
+-- V9__Create_menu_item_sales_table.sql
+-- Time-bucketed per-item sales rollup feeding popular item rankings
+
+CREATE TABLE menu_item_sales (
+    sales_id BIGSERIAL PRIMARY KEY,
+    branch_id BIGINT NOT NULL REFERENCES vendor_branches(branch_id) ON DELETE CASCADE,
+    menu_item_id BIGINT NOT NULL,
+    
+    -- Start of the time bucket (by orders.ordered_at)
+    bucket_start TIMESTAMP WITH TIME ZONE NOT NULL,
+    
+    -- Aggregates within the bucket
+    quantity BIGINT NOT NULL DEFAULT 0,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    
+    CONSTRAINT uq_menu_item_sales_bucket UNIQUE (branch_id, bucket_start, menu_item_id)
+);
+
+-- Indexes
+CREATE INDEX idx_menu_item_sales_bucket_start ON menu_item_sales(bucket_start);
+
+-- Watermarks for incremental background aggregations
+CREATE TABLE aggregation_checkpoints (
+    name VARCHAR(100) PRIMARY KEY,
+    
+    -- Source rows created before this instant have been folded in
+    checkpoint_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Start with one week of history so every ranking window is populated
+INSERT INTO aggregation_checkpoints (name, checkpoint_at)
+VALUES ('popular-items', CURRENT_TIMESTAMP - INTERVAL '7 days');
+
+-- New order items are read by creation time
+CREATE INDEX idx_order_items_created_at ON order_items(created_at);
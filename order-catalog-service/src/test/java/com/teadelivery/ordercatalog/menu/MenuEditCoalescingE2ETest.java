@@ -0,0 +1,259 @@
+package com.teadelivery.ordercatalog.menu;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teadelivery.ordercatalog.menu.dto.*;
+import com.teadelivery.ordercatalog.vendor.dto.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * E2E tests for coalesced publishing of single-item menu edits (menu.coalescing.enabled).
+ * Every edit commits its own version; readers stay on the last published version until the
+ * burst's quiet window closes, and a newer direct publish supersedes a pending burst.
+ *
+ * Pattern: MenuItemOperationsCompleteE2ETest.java
+ * Database: order_catalog_test_db (own vendor and branch per run, no cleanup needed)
+ * Execution: Sequential with @Order annotations
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "menu.coalescing.enabled=true",
+    "menu.coalescing.window=PT1S",
+    "menu.coalescing.max-delay=PT5S",
+    "menu.coalescing.flush-interval=PT0.1S"
+})
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public class MenuEditCoalescingE2ETest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+    
+    private Long branchId;
+    private Long chaiId;
+    private Long samosaId;
+    
+    private static final String BASE_URL = "/api/v1/menu-items";
+    private static final String VENDOR_URL = "/api/v1/vendors";
+    private static final long FLUSH_TIMEOUT_MS = 10_000;
+    
+    // Keeps the vendor email unique across runs against the same database
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    
+    @BeforeAll
+    public void setupTestSuite() throws Exception {
+        VendorRegistrationRequest vendorRequest = new VendorRegistrationRequest();
+        vendorRequest.setCompanyName("Chai Coalesce Pvt Ltd");
+        vendorRequest.setBrandName("Chai Coalesce");
+        vendorRequest.setCompanyEmail("contact+" + runId + "@chaicoalesce.com");
+        vendorRequest.setCompanyPhone("9876500010");
+        
+        MvcResult vendorResult = mockMvc.perform(post(VENDOR_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(vendorRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long vendorId = objectMapper.readValue(vendorResult.getResponse().getContentAsString(),
+            VendorResponse.class).getVendorId();
+        
+        Map<String, Object> address = new HashMap<>();
+        address.put("street", "12th Main");
+        address.put("area", "HSR Layout");
+        address.put("city", "Bangalore");
+        address.put("state", "Karnataka");
+        address.put("pincode", "560102");
+        
+        BranchCreateRequest branch = new BranchCreateRequest();
+        branch.setBranchName("HSR Coalescing Branch");
+        branch.setBranchCode("HSR-" + runId);
+        branch.setCity("Bangalore");
+        branch.setBranchPhone("9876500011");
+        branch.setBranchEmail("hsr@chaicoalesce.com");
+        branch.setAddress(address);
+        
+        MvcResult branchResult = mockMvc.perform(post(VENDOR_URL + "/" + vendorId + "/branches")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(branch)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        branchId = objectMapper.readValue(branchResult.getResponse().getContentAsString(),
+            BranchResponse.class).getBranchId();
+        
+        chaiId = createItem("Cutting Chai", "15.00");
+        samosaId = createItem("Punjabi Samosa", "18.00");
+        awaitPublished(dbVersion());
+    }
+    
+    @Test
+    @Order(1)
+    @DisplayName("UC-K013: Coalesced edits keep the published menu until one publish closes the burst")
+    public void testBurstPublishedOnce() throws Exception {
+        System.out.println("\n🧪 TEST 1: UC-K013 - Coalesced edit burst");
+        
+        int publishedVersion = dbVersion();
+        MvcResult first = mockMvc.perform(get(BASE_URL + "/branches/" + branchId))
+                .andExpect(status().isOk())
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+        assertEquals("\"menu-" + branchId + "-v" + publishedVersion + "\"", etag);
+        
+        // Two edits in one burst: each commits its own version right away
+        updatePrice(chaiId, "16.00");
+        updatePrice(chaiId, "17.00");
+        assertEquals(publishedVersion + 2, dbVersion(), "Every edit must commit its own version");
+        
+        // Readers keep the last published version, whole-menu and paged alike
+        mockMvc.perform(get(BASE_URL + "/branches/" + branchId)
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get(BASE_URL + "/branches/" + branchId)
+                .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(jsonPath("$[?(@.menuItemId == " + chaiId + ")].price", hasItem(15.00)));
+        
+        // The pointer moves once, straight to the last version of the burst
+        assertEquals(publishedVersion + 2, awaitPointerChange(publishedVersion),
+            "The burst must be published as a single version");
+        
+        // Paged reads always follow the pointer; whole-menu reads may serve the stale copy a little longer
+        mockMvc.perform(get(BASE_URL + "/branches/" + branchId)
+                .param("size", "10")
+                .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"menu-" + branchId + "-v" + (publishedVersion + 2) + "\""))
+                .andExpect(jsonPath("$[?(@.menuItemId == " + chaiId + ")].price", hasItem(17.00)));
+        
+        System.out.println("✅ PASS: Burst of 2 edits published once as v" + (publishedVersion + 2));
+    }
+    
+    @Test
+    @Order(2)
+    @DisplayName("UC-K014: A batch patch supersedes a pending coalesced edit")
+    public void testDirectPublishSupersedesPendingEdit() throws Exception {
+        System.out.println("\n🧪 TEST 2: UC-K014 - Pending edit superseded by a batch patch");
+        
+        int publishedVersion = dbVersion();
+        
+        // Single edit left pending, then a batch patch published directly after its commit
+        updatePrice(samosaId, "19.00");
+        MvcResult patched = mockMvc.perform(patch(BASE_URL + "/branches/" + branchId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"menuItemIds\": [" + chaiId + "], \"preparationTimeMinutes\": 6}"))
+                .andExpect(status().isOk())
+                .andReturn();
+        int patchVersion = objectMapper.readTree(patched.getResponse().getContentAsString()).get("menuVersion").asInt();
+        assertEquals(publishedVersion + 2, patchVersion);
+        assertEquals(String.valueOf(patchVersion), pointer());
+        
+        // Past the window the pending edit must not move the pointer back to its older version
+        Thread.sleep(2_000);
+        assertEquals(String.valueOf(patchVersion), pointer(), "A superseded burst must not be published");
+        
+        String etag = "\"menu-" + branchId + "-v" + patchVersion + "\"";
+        mockMvc.perform(get(BASE_URL + "/branches/" + branchId)
+                .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(jsonPath("$[?(@.menuItemId == " + samosaId + ")].price", hasItem(19.00)))
+                .andExpect(jsonPath("$[?(@.menuItemId == " + chaiId + ")].preparationTimeMinutes", hasItem(6)));
+        
+        // Delta sync works from the published version
+        mockMvc.perform(get(BASE_URL + "/branches/" + branchId + "/changes")
+                .param("sinceVersion", String.valueOf(patchVersion)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.toVersion").value(patchVersion))
+                .andExpect(jsonPath("$.changed").isEmpty());
+        
+        System.out.println("✅ PASS: Pointer stayed at v" + patchVersion + " after the pending edit expired");
+    }
+    
+    private Long createItem(String name, String price) throws Exception {
+        MenuItemCreateRequest request = new MenuItemCreateRequest();
+        request.setName(name);
+        request.setPrice(new BigDecimal(price));
+        request.setCategory("Beverages");
+        
+        MvcResult result = mockMvc.perform(post(BASE_URL + "/branches/" + branchId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), MenuItemResponse.class).getMenuItemId();
+    }
+    
+    private void updatePrice(Long menuItemId, String price) throws Exception {
+        MenuItemUpdateRequest updateRequest = new MenuItemUpdateRequest();
+        updateRequest.setPrice(new BigDecimal(price));
+        mockMvc.perform(put(BASE_URL + "/" + menuItemId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isOk());
+    }
+    
+    private int dbVersion() {
+        return jdbcTemplate.queryForObject(
+                "SELECT menu_version FROM vendor_branches WHERE branch_id = ?", Integer.class, branchId);
+    }
+    
+    private String pointer() {
+        return stringRedisTemplate.opsForValue().get("branch:" + branchId + ":menu:current");
+    }
+    
+    private void awaitPublished(int version) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT_MS;
+        while (!String.valueOf(version).equals(pointer()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(String.valueOf(version), pointer(), "Pending edits were not published in time");
+    }
+    
+    /**
+     * Samples the version pointer until it leaves {@code version}, returning the first new value seen.
+     */
+    private int awaitPointerChange(int version) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + FLUSH_TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            String current = pointer();
+            if (current != null && !current.equals(String.valueOf(version))) {
+                return Integer.parseInt(current);
+            }
+            Thread.sleep(10);
+        }
+        return version;
+    }
+}
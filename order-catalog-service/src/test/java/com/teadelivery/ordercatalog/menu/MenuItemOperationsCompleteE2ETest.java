@@ -1,8 +1,13 @@
 package com.teadelivery.ordercatalog.menu;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.teadelivery.ordercatalog.menu.dto.*;
+import com.teadelivery.ordercatalog.menu.service.MenuFeedListener;
+import com.teadelivery.ordercatalog.menu.service.MenuService;
 import com.teadelivery.ordercatalog.vendor.dto.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
@@ -14,6 +19,7 @@ import org.junit.jupiter.api.TestMethodOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.http.MediaType;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
@@ -22,10 +28,18 @@ import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Comprehensive E2E Tests for Menu Item Operations
@@ -55,6 +69,18 @@ public class MenuItemOperationsCompleteE2ETest {
     
     @Autowired
     private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private MenuFeedListener menuFeedListener;
+    
+    @Autowired
+    private MenuService menuService;
+    
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
 
     // Test data - persisted across tests
     private Long vendorId;
@@ -1359,4 +1385,531 @@ public class MenuItemOperationsCompleteE2ETest {
         
         System.out.println("✅ PASS: Complex multi-filter query executed");
     }
+    
+    // ==================== CACHING & CONDITIONAL REQUESTS ====================
+    
+    @Test
+    @Order(41)
+    @DisplayName("UC-K001: Menu ETag revalidation and invalidation on change")
+    public void testMenuETagRevalidation() throws Exception {
+        System.out.println("\n🧪 TEST 41: UC-K001 - Menu ETag / If-None-Match");
+        
+        MvcResult first = mockMvc.perform(get(BASE_URL + "/branches/" + branchId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+        
+        // Unchanged menu (UC-K001)
+        mockMvc.perform(get(BASE_URL + "/branches/" + branchId)
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        
+        // gzip is served only when accepted with a non-zero weight, and is tagged separately
+        mockMvc.perform(get(BASE_URL + "/branches/" + branchId)
+                .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", etag.substring(0, etag.length() - 1) + "-gz\""));
+        for (String refused : List.of("gzip;q=0", "identity, gzip;q=0.0", "*;q=0")) {
+            mockMvc.perform(get(BASE_URL + "/branches/" + branchId)
+                    .header("Accept-Encoding", refused))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("Content-Encoding"))
+                    .andExpect(header().string("ETag", etag));
+        }
+        
+        // Any menu edit bumps the version and changes the ETag
+        MenuItemUpdateRequest updateRequest = new MenuItemUpdateRequest();
+        updateRequest.setPrice(new BigDecimal("22.00"));
+        mockMvc.perform(put(BASE_URL + "/" + menuItemId1)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isOk());
+        
+        // The whole menu may briefly be served from the previous version while the new one renders
+        MvcResult changed = mockMvc.perform(get(BASE_URL + "/branches/" + branchId)
+                .header("If-None-Match", etag))
+                .andReturn();
+        for (int attempt = 0; attempt < 50 && changed.getResponse().getStatus() == 304; attempt++) {
+            Thread.sleep(100);
+            changed = mockMvc.perform(get(BASE_URL + "/branches/" + branchId)
+                    .header("If-None-Match", etag))
+                    .andReturn();
+        }
+        assertEquals(200, changed.getResponse().getStatus(), "Edited menu should be served with a new ETag");
+        assertNotEquals(etag, changed.getResponse().getHeader("ETag"));
+        boolean repriced = false;
+        for (JsonNode item : objectMapper.readTree(changed.getResponse().getContentAsString())) {
+            repriced |= item.get("menuItemId").asLong() == menuItemId1 && item.get("price").decimalValue().compareTo(new BigDecimal("22.00")) == 0;
+        }
+        assertTrue(repriced, "Edited price should be in the new menu");
+        
+        System.out.println("✅ PASS: ETag revalidation works");
+    }
+    
+    @Test
+    @Order(42)
+    @DisplayName("UC-K002: Menu delta sync since a known version")
+    public void testMenuDeltaSync() throws Exception {
+        System.out.println("\n🧪 TEST 42: UC-K002 - Menu delta sync");
+        
+        int sinceVersion = jdbcTemplate.queryForObject(
+                "SELECT menu_version FROM vendor_branches WHERE branch_id = ?", Integer.class, branchId);
+        
+        // Nothing changed yet
+        mockMvc.perform(get(BASE_URL + "/branches/" + branchId + "/changes")
+                .param("sinceVersion", String.valueOf(sinceVersion)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fullSnapshot").value(false))
+                .andExpect(jsonPath("$.changed").isEmpty())
+                .andExpect(jsonPath("$.removed").isEmpty());
+        
+        MenuItemUpdateRequest updateRequest = new MenuItemUpdateRequest();
+        updateRequest.setPrice(new BigDecimal("23.00"));
+        mockMvc.perform(put(BASE_URL + "/" + menuItemId1)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isOk());
+        
+        // Only the edited item comes back
+        mockMvc.perform(get(BASE_URL + "/branches/" + branchId + "/changes")
+                .param("sinceVersion", String.valueOf(sinceVersion)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fromVersion").value(sinceVersion))
+                .andExpect(jsonPath("$.toVersion").value(sinceVersion + 1))
+                .andExpect(jsonPath("$.fullSnapshot").value(false))
+                .andExpect(jsonPath("$.added").isEmpty())
+                .andExpect(jsonPath("$.changed.length()").value(1))
+                .andExpect(jsonPath("$.changed[0].menuItemId").value(menuItemId1))
+                .andExpect(jsonPath("$.changed[0].price").value(23.00));
+        
+        System.out.println("✅ PASS: Delta sync returns only changed items");
+    }
+    
+    @Test
+    @Order(43)
+    @DisplayName("UC-K003: Menu cursor pagination")
+    public void testMenuCursorPagination() throws Exception {
+        System.out.println("\n🧪 TEST 43: UC-K003 - Menu cursor pagination");
+        
+        MvcResult first = mockMvc.perform(get(BASE_URL + "/branches/" + branchId)
+                .param("cursor", "")
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").exists())
+                .andReturn();
+        
+        JsonNode firstSlice = objectMapper.readTree(first.getResponse().getContentAsString());
+        long firstId = firstSlice.get("items").get(0).get("menuItemId").asLong();
+        String nextCursor = firstSlice.get("nextCursor").asText();
+        
+        MvcResult second = mockMvc.perform(get(BASE_URL + "/branches/" + branchId)
+                .param("cursor", nextCursor)
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andReturn();
+        long secondId = objectMapper.readTree(second.getResponse().getContentAsString())
+                .get("items").get(0).get("menuItemId").asLong();
+        assertTrue(secondId > firstId, "Next slice should continue after the last item seen");
+        
+        // Tampered cursors are rejected
+        mockMvc.perform(get(BASE_URL + "/branches/" + branchId)
+                .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        
+        System.out.println("✅ PASS: Cursor pagination continues after the last item");
+    }
+    
+    @Test
+    @Order(44)
+    @DisplayName("UC-K004: Popular items per window")
+    public void testPopularItems() throws Exception {
+        System.out.println("\n🧪 TEST 44: UC-K004 - Popular items");
+        
+        // No orders yet: every window ranks nothing
+        for (String window : List.of("HOUR", "DAY", "WEEK")) {
+            mockMvc.perform(get(BASE_URL + "/branches/" + branchId + "/popular")
+                    .param("window", window))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$").isArray())
+                    .andExpect(jsonPath("$").isEmpty());
+        }
+        
+        mockMvc.perform(get(BASE_URL + "/branches/999999/popular"))
+                .andExpect(status().isNotFound());
+        
+        System.out.println("✅ PASS: Popular items endpoint responds per window");
+    }
+    
+    @Test
+    @Order(45)
+    @DisplayName("UC-K005: Bulk CSV import with per-row errors and one version bump")
+    public void testBulkMenuImport() throws Exception {
+        System.out.println("\n🧪 TEST 45: UC-K005 - Bulk menu import");
+        
+        int versionBefore = jdbcTemplate.queryForObject(
+                "SELECT menu_version FROM vendor_branches WHERE branch_id = ?", Integer.class, branchId);
+        
+        String csv = "name,description,price,category,preparationTimeMinutes,tags\n" +
+                "Imported Ginger Tea,\"Fresh ginger, lemon\",25.00,Beverages,5,hot|imported\n" +
+                "Imported Bun Maska,,30.00,Snacks,,\n" +
+                "Bad Price Item,,abc,Snacks,,\n";
+        
+        mockMvc.perform(post(BASE_URL + "/branches/" + branchId + "/import")
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(3))
+                .andExpect(jsonPath("$.importedCount").value(2))
+                .andExpect(jsonPath("$.failedCount").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(3))
+                .andExpect(jsonPath("$.menuVersion").value(versionBefore + 1));
+        
+        // Imported rows are visible through the normal menu read
+        mockMvc.perform(get(BASE_URL + "/branches/" + branchId)
+                .param("size", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.name == 'Imported Ginger Tea')].description", hasItem("Fresh ginger, lemon")))
+                .andExpect(jsonPath("$[?(@.name == 'Imported Bun Maska')]").isNotEmpty());
+        
+        // JSON lines: validation errors are reported per line
+        String jsonLines = "{\"name\": \"Imported Kulhad Chai\", \"price\": 35.00, \"category\": \"Beverages\"}\n" +
+                "{\"name\": \"X\", \"price\": 10.00, \"category\": \"Snacks\"}\n" +
+                "not json\n";
+        
+        mockMvc.perform(post(BASE_URL + "/branches/" + branchId + "/import")
+                .contentType("application/x-ndjson")
+                .content(jsonLines))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importedCount").value(1))
+                .andExpect(jsonPath("$.failedCount").value(2))
+                .andExpect(jsonPath("$.menuVersion").value(versionBefore + 2));
+        
+        System.out.println("✅ PASS: Bulk import reports row errors and bumps the version once");
+    }
+    
+    @Test
+    @Order(46)
+    @DisplayName("UC-K006: Batch patch by ids and by category")
+    public void testBatchPatch() throws Exception {
+        System.out.println("\n🧪 TEST 46: UC-K006 - Batch menu patch");
+        
+        String byIds = "{\"menuItemIds\": [" + menuItemId1 + ", " + menuItemId2 + "], \"preparationTimeMinutes\": 7}";
+        MvcResult first = mockMvc.perform(patch(BASE_URL + "/branches/" + branchId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(byIds))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updatedCount").value(2))
+                .andReturn();
+        int version = objectMapper.readTree(first.getResponse().getContentAsString()).get("menuVersion").asInt();
+        
+        // Re-applying the same values changes nothing and keeps the version
+        mockMvc.perform(patch(BASE_URL + "/branches/" + branchId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(byIds))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updatedCount").value(0))
+                .andExpect(jsonPath("$.menuVersion").value(version));
+        
+        mockMvc.perform(get(BASE_URL + "/" + menuItemId1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.preparationTimeMinutes").value(7));
+        
+        // Category selector with a percentage price change
+        mockMvc.perform(patch(BASE_URL + "/branches/" + branchId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"category\": \"Snacks\", \"priceAdjustmentPercent\": 10}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.menuVersion").value(version + 1));
+        
+        // Ambiguous selector is rejected
+        mockMvc.perform(patch(BASE_URL + "/branches/" + branchId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"menuItemIds\": [" + menuItemId1 + "], \"category\": \"Snacks\", \"isAvailable\": true}"))
+                .andExpect(status().isBadRequest());
+        
+        System.out.println("✅ PASS: Batch patch applies one version per batch");
+    }
+    
+    @Test
+    @Order(47)
+    @DisplayName("UC-K007: No lost menu versions with 64 concurrent editors")
+    public void testConcurrentMenuVersionIncrements() throws Exception {
+        System.out.println("\n🧪 TEST 47: UC-K007 - Concurrent menu version increments");
+        
+        int editors = 64;
+        Integer versionBefore = jdbcTemplate.queryForObject(
+                "SELECT menu_version FROM vendor_branches WHERE branch_id = ?", Integer.class, branchId);
+        List<Long> itemIds = List.of(menuItemId1, menuItemId2, menuItemId4);
+        
+        ExecutorService pool = Executors.newFixedThreadPool(editors);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < editors; i++) {
+            Long itemId = itemIds.get(i % itemIds.size());
+            BigDecimal price = new BigDecimal("30.00").add(BigDecimal.valueOf(i));
+            results.add(pool.submit(() -> {
+                start.await();
+                MenuItemUpdateRequest updateRequest = new MenuItemUpdateRequest();
+                updateRequest.setPrice(price);
+                return mockMvc.perform(put(BASE_URL + "/" + itemId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateRequest)))
+                        .andReturn().getResponse().getStatus();
+            }));
+        }
+        start.countDown();
+        for (Future<Integer> result : results) {
+            assertEquals(200, result.get(60, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+        
+        Integer versionAfter = jdbcTemplate.queryForObject(
+                "SELECT menu_version FROM vendor_branches WHERE branch_id = ?", Integer.class, branchId);
+        Integer distinctLogged = jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT menu_version) FROM menu_item_changes WHERE branch_id = ? AND menu_version > ?",
+                Integer.class, branchId, versionBefore);
+        
+        assertEquals(versionBefore + editors, versionAfter, "Every edit must produce its own version");
+        assertEquals(editors, distinctLogged, "Every version must be logged exactly once");
+        // After-commit publishes race each other; the shared pointer must still end at the newest version
+        assertEquals(String.valueOf(versionBefore + editors),
+                stringRedisTemplate.opsForValue().get("branch:" + branchId + ":menu:current"),
+                "A late publish must not move the version pointer back");
+        assertEquals(versionBefore + editors, menuService.getMenuVersion(branchId));
+        
+        System.out.println("✅ PASS: " + editors + " concurrent edits produced " + editors + " versions");
+    }
+    
+    @Test
+    @Order(48)
+    @DisplayName("UC-K008: One menu rebuild per version under 64 concurrent readers")
+    public void testSingleFlightMenuRebuild() throws Exception {
+        System.out.println("\n🧪 TEST 48: UC-K008 - Single-flight menu rebuild");
+        
+        // Publishing a new version evicts every cached copy of the menu
+        MenuItemUpdateRequest updateRequest = new MenuItemUpdateRequest();
+        updateRequest.setPreparationTimeMinutes(9);
+        mockMvc.perform(put(BASE_URL + "/" + menuItemId1)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updateRequest)))
+                .andExpect(status().isOk());
+        double payloadRebuildsBefore = rebuildCount("branch-menu-payload");
+        double menuRebuildsBefore = rebuildCount("branch-menu");
+        
+        int readers = 64;
+        ExecutorService pool = Executors.newFixedThreadPool(readers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < readers; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return mockMvc.perform(get(BASE_URL + "/branches/" + branchId))
+                        .andReturn().getResponse().getStatus();
+            }));
+        }
+        start.countDown();
+        for (Future<Integer> result : results) {
+            assertEquals(200, result.get(60, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+        
+        // Readers served the previous version leave the rebuild to a background refresh
+        long deadline = System.currentTimeMillis() + 5000;
+        while (rebuildCount("branch-menu-payload") == payloadRebuildsBefore && System.currentTimeMillis() < deadline) {
+            Thread.sleep(25);
+        }
+        
+        assertEquals(payloadRebuildsBefore + 1, rebuildCount("branch-menu-payload"), "Payload must be rebuilt once");
+        assertEquals(menuRebuildsBefore + 1, rebuildCount("branch-menu"), "Menu must be loaded from the database once");
+        
+        System.out.println("✅ PASS: " + readers + " concurrent readers caused a single menu rebuild");
+    }
+    
+    @Test
+    @Order(49)
+    @DisplayName("UC-K009: Menus of several branches in one request")
+    public void testMultiBranchMenuFetch() throws Exception {
+        System.out.println("\n🧪 TEST 49: UC-K009 - Multi-branch menu fetch");
+        
+        Integer version = jdbcTemplate.queryForObject(
+                "SELECT menu_version FROM vendor_branches WHERE branch_id = ?", Integer.class, branchId);
+        
+        mockMvc.perform(get(BASE_URL + "/branches")
+                .param("ids", branchId + "," + branchId2 + ",999999")
+                .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].branchId").value(branchId))
+                .andExpect(jsonPath("$[0].found").value(true))
+                .andExpect(jsonPath("$[0].menuVersion").value(version))
+                .andExpect(jsonPath("$[0].items.length()").value(2))
+                .andExpect(jsonPath("$[0].totalItems").value(greaterThanOrEqualTo(2)))
+                .andExpect(jsonPath("$[1].branchId").value(branchId2))
+                .andExpect(jsonPath("$[1].found").value(true))
+                .andExpect(jsonPath("$[2].found").value(false));
+        
+        // Too many branches in one request
+        StringJoiner tooMany = new StringJoiner(",");
+        for (long id = 1; id <= 51; id++) {
+            tooMany.add(String.valueOf(id));
+        }
+        mockMvc.perform(get(BASE_URL + "/branches").param("ids", tooMany.toString()))
+                .andExpect(status().isBadRequest());
+        
+        System.out.println("✅ PASS: Branch menus fetched in one request");
+    }
+    
+    @Test
+    @Order(50)
+    @DisplayName("UC-K010: Place an order priced from the cached menu")
+    public void testPlaceOrder() throws Exception {
+        System.out.println("\n🧪 TEST 50: UC-K010 - Order placement with price snapshot");
+        
+        // Onboarding approval is not exposed over the API yet, so activate the branch directly
+        jdbcTemplate.update("UPDATE vendor_branches SET is_active = true WHERE branch_id = ?", branchId);
+        mockMvc.perform(put("/api/v1/branches/" + branchId + "/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"isOpen\": true}"))
+                .andExpect(status().isOk());
+        
+        MenuItemCreateRequest create = new MenuItemCreateRequest();
+        create.setName("Ginger Chai");
+        create.setPrice(new BigDecimal("25.00"));
+        create.setCategory("Beverages");
+        create.setPreparationTimeMinutes(7);
+        MvcResult created = mockMvc.perform(post(BASE_URL + "/branches/" + branchId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(create)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long gingerChaiId = objectMapper.readTree(created.getResponse().getContentAsString()).get("menuItemId").asLong();
+        
+        String order = "{\"branchId\": " + branchId + ", \"items\": [{\"menuItemId\": " + gingerChaiId + ", \"quantity\": 2}], " +
+                "\"deliveryDetails\": {\"type\": \"STANDARD\", \"address\": {\"street\": \"100 Feet Road\"}}}";
+        MvcResult placed = mockMvc.perform(post("/api/v1/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(order))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.orderId").exists())
+                .andExpect(jsonPath("$.orderStatus").value("PENDING"))
+                .andExpect(jsonPath("$.totalAmount").value(50.00))
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].itemName").value("Ginger Chai"))
+                .andExpect(jsonPath("$.items[0].priceAtOrder").value(25.00))
+                .andReturn();
+        long orderId = objectMapper.readTree(placed.getResponse().getContentAsString()).get("orderId").asLong();
+        
+        // Later price changes do not touch the snapshot
+        MenuItemUpdateRequest priceChange = new MenuItemUpdateRequest();
+        priceChange.setPrice(new BigDecimal("30.00"));
+        mockMvc.perform(put(BASE_URL + "/" + gingerChaiId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(priceChange)))
+                .andExpect(status().isOk());
+        BigDecimal snapshot = jdbcTemplate.queryForObject(
+                "SELECT price_at_order FROM order_items WHERE order_id = ?", BigDecimal.class, orderId);
+        assertEquals(0, new BigDecimal("25.00").compareTo(snapshot));
+        
+        // Items that are not on this branch's menu are rejected
+        mockMvc.perform(post("/api/v1/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(order.replace("\"menuItemId\": " + gingerChaiId, "\"menuItemId\": 999999999")))
+                .andExpect(status().isUnprocessableEntity());
+        
+        System.out.println("✅ PASS: Order placed with snapshotted prices");
+    }
+    
+    @Test
+    @Order(51)
+    @DisplayName("UC-K011: Order and menu changes are written to the outbox")
+    public void testOutboxEvents() throws Exception {
+        System.out.println("\n🧪 TEST 51: UC-K011 - Transactional outbox");
+        
+        Long orderId = jdbcTemplate.queryForObject(
+                "SELECT MAX(order_id) FROM orders WHERE branch_id = ? AND order_status = 'PENDING'", Long.class, branchId);
+        
+        mockMvc.perform(put("/api/v1/orders/" + orderId + "/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\": \"ACCEPTED\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orderStatus").value("ACCEPTED"));
+        
+        // Status only moves forward
+        mockMvc.perform(put("/api/v1/orders/" + orderId + "/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\": \"PENDING\"}"))
+                .andExpect(status().isBadRequest());
+        
+        // The relay is disabled in tests, so every event is still in the table, keyed by branch
+        String countSql = "SELECT COUNT(*) FROM outbox_events WHERE event_key = ? AND event_type = ?";
+        String key = String.valueOf(branchId);
+        assertTrue(jdbcTemplate.queryForObject(countSql, Integer.class, key, "ORDER_CREATED") >= 1);
+        assertEquals(1, jdbcTemplate.queryForObject(countSql, Integer.class, key, "ORDER_STATUS_CHANGED"));
+        assertTrue(jdbcTemplate.queryForObject(countSql, Integer.class, key, "MENU_CHANGED") >= 1);
+        
+        Integer menuVersion = jdbcTemplate.queryForObject(
+                "SELECT menu_version FROM vendor_branches WHERE branch_id = ?", Integer.class, branchId);
+        String latestMenuEvent = jdbcTemplate.queryForObject(
+                "SELECT payload::text FROM outbox_events WHERE event_key = ? AND event_type = 'MENU_CHANGED' " +
+                "ORDER BY event_id DESC LIMIT 1", String.class, key);
+        assertEquals(menuVersion.intValue(), objectMapper.readTree(latestMenuEvent).get("menuVersion").asInt());
+        
+        System.out.println("✅ PASS: Outbox holds order and menu events for the branch");
+    }
+    
+    @Test
+    @Order(52)
+    @DisplayName("UC-K012: POS feed batch applied with one version bump per branch")
+    public void testMenuFeedBatch() throws Exception {
+        System.out.println("\n🧪 TEST 52: UC-K012 - Batched POS menu feed");
+        
+        List<Map<String, Object>> items = jdbcTemplate.queryForList(
+                "SELECT menu_item_id, is_available FROM menu_items WHERE branch_id = ? AND is_deleted = false " +
+                "ORDER BY menu_item_id LIMIT 2", branchId);
+        long first = ((Number) items.get(0).get("menu_item_id")).longValue();
+        long second = ((Number) items.get(1).get("menu_item_id")).longValue();
+        boolean secondAvailable = !(Boolean) items.get(1).get("is_available");
+        Integer versionBefore = jdbcTemplate.queryForObject(
+                "SELECT menu_version FROM vendor_branches WHERE branch_id = ?", Integer.class, branchId);
+        
+        // Two messages for the first item merge into one change; the listener container is not started in tests
+        List<ConsumerRecord<String, String>> batch = List.of(
+                feedRecord(0, "{\"branchId\": " + branchId + ", \"menuItemId\": " + first + ", \"price\": 41.50}"),
+                feedRecord(1, "{\"branchId\": " + branchId + ", \"menuItemId\": " + second + ", \"isAvailable\": " + secondAvailable + "}"),
+                feedRecord(2, "{\"branchId\": " + branchId + ", \"menuItemId\": " + first + ", \"isAvailable\": false}"));
+        menuFeedListener.onMessages(batch);
+        
+        Integer versionAfter = jdbcTemplate.queryForObject(
+                "SELECT menu_version FROM vendor_branches WHERE branch_id = ?", Integer.class, branchId);
+        assertEquals(versionBefore + 1, versionAfter);
+        Map<String, Object> firstRow = jdbcTemplate.queryForMap(
+                "SELECT price, is_available FROM menu_items WHERE menu_item_id = ?", first);
+        assertEquals(0, new BigDecimal("41.50").compareTo((BigDecimal) firstRow.get("price")));
+        assertEquals(false, firstRow.get("is_available"));
+        assertEquals(secondAvailable, jdbcTemplate.queryForObject(
+                "SELECT is_available FROM menu_items WHERE menu_item_id = ?", Boolean.class, second));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM menu_item_changes WHERE branch_id = ? AND menu_version = ?",
+                Integer.class, branchId, versionAfter));
+        
+        // Redelivery of the same batch changes nothing and does not bump the version
+        menuFeedListener.onMessages(batch);
+        assertEquals(versionAfter, jdbcTemplate.queryForObject(
+                "SELECT menu_version FROM vendor_branches WHERE branch_id = ?", Integer.class, branchId));
+        
+        System.out.println("✅ PASS: Feed batch applied as one menu version");
+    }
+    
+    private ConsumerRecord<String, String> feedRecord(long offset, String value) {
+        return new ConsumerRecord<>("pos.menu-changes", 0, offset, String.valueOf(branchId), value);
+    }
+    
+    private double rebuildCount(String cacheName) {
+        return meterRegistry.get("cache.rebuilds").tag("cache", cacheName).counter().count();
+    }
 }